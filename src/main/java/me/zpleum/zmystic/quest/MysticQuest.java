@@ -4,9 +4,17 @@ import me.zpleum.zmystic.quest.commands.AdminCommands;
 import me.zpleum.zmystic.quest.commands.MysticQuestCommand;
 import me.zpleum.zmystic.quest.commands.QuestResponseCommand;
 import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.listeners.CitizensListener;
 import me.zpleum.zmystic.quest.listeners.PlayerListener;
+import me.zpleum.zmystic.quest.listeners.QuestListenerRegistry;
+import me.zpleum.zmystic.quest.managers.CollectTracker;
+import me.zpleum.zmystic.quest.managers.ExploreTracker;
 import me.zpleum.zmystic.quest.managers.NPCManager;
+import me.zpleum.zmystic.quest.managers.ProgressAggregator;
+import me.zpleum.zmystic.quest.managers.QuestExpiryScheduler;
 import me.zpleum.zmystic.quest.managers.QuestManager;
+import me.zpleum.zmystic.quest.managers.RewardDeliveryQueue;
+import me.zpleum.zmystic.quest.managers.StructureCache;
 import net.citizensnpcs.api.CitizensAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.command.PluginCommand;
@@ -24,6 +32,13 @@ public class MysticQuest extends JavaPlugin {
     private ConfigManager configManager;
     private NPCManager npcManager;
     private QuestManager questManager;
+    private QuestListenerRegistry listenerRegistry;
+    private StructureCache structureCache;
+    private ExploreTracker exploreTracker;
+    private CollectTracker collectTracker;
+    private ProgressAggregator progressAggregator;
+    private QuestExpiryScheduler expiryScheduler;
+    private RewardDeliveryQueue rewardQueue;
 
     private String getVersionFromWeb() {
         String latestVersion = "Unknown";
@@ -106,11 +121,33 @@ public class MysticQuest extends JavaPlugin {
 
         questManager = new QuestManager(this);
         npcManager = new NPCManager(this);
+
+        structureCache = new StructureCache(this);
+        structureCache.start(questManager.getDataWriter());
+
+        exploreTracker = new ExploreTracker(this);
+        exploreTracker.start();
+
+        collectTracker = new CollectTracker(this);
+        collectTracker.start();
+
+        progressAggregator = new ProgressAggregator(this);
+
+        expiryScheduler = new QuestExpiryScheduler(this);
+        expiryScheduler.start();
+
+        rewardQueue = new RewardDeliveryQueue(this);
+        rewardQueue.start(questManager.getDataWriter());
     }
 
     private void registerListenersAndCommands() {
         // Register event listeners
         Bukkit.getPluginManager().registerEvents(new PlayerListener(this), this);
+        Bukkit.getPluginManager().registerEvents(new CitizensListener(this), this);
+
+        // Quest progress listeners follow the quest types players have active
+        listenerRegistry = new QuestListenerRegistry(this);
+        listenerRegistry.start();
 
         // Register main command
         getCommand("mysticquest").setExecutor(new MysticQuestCommand(this));
@@ -157,7 +194,15 @@ public class MysticQuest extends JavaPlugin {
     public void onDisable() {
         // Clean up tasks and save data on disable
         if (npcManager != null) npcManager.stopSpawningTask();
-        if (questManager != null) questManager.savePlayerData();
+        if (listenerRegistry != null) listenerRegistry.shutdown();
+        if (exploreTracker != null) exploreTracker.shutdown();
+        if (collectTracker != null) collectTracker.shutdown();
+        if (progressAggregator != null) progressAggregator.flush();
+        if (expiryScheduler != null) expiryScheduler.shutdown();
+        if (questManager != null) questManager.shutdown();
+        // After the I/O thread is drained so a queued save can't overwrite this one
+        if (structureCache != null) structureCache.shutdown();
+        if (rewardQueue != null) rewardQueue.shutdown();
 
         String currentVersion = "2.0";
         String latestVersion = getVersionFromWeb();
@@ -181,4 +226,32 @@ public class MysticQuest extends JavaPlugin {
     public QuestManager getQuestManager() {
         return questManager;
     }
+
+    public QuestListenerRegistry getListenerRegistry() {
+        return listenerRegistry;
+    }
+
+    public StructureCache getStructureCache() {
+        return structureCache;
+    }
+
+    public ExploreTracker getExploreTracker() {
+        return exploreTracker;
+    }
+
+    public CollectTracker getCollectTracker() {
+        return collectTracker;
+    }
+
+    public ProgressAggregator getProgressAggregator() {
+        return progressAggregator;
+    }
+
+    public QuestExpiryScheduler getExpiryScheduler() {
+        return expiryScheduler;
+    }
+
+    public RewardDeliveryQueue getRewardQueue() {
+        return rewardQueue;
+    }
 }
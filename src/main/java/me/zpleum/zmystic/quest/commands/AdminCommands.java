@@ -1,7 +1,20 @@
 package me.zpleum.zmystic.quest.commands;
 
 import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.managers.CollectTracker;
+import me.zpleum.zmystic.quest.managers.ExploreTracker;
+import me.zpleum.zmystic.quest.managers.NPCManager;
+import me.zpleum.zmystic.quest.managers.NPCPool;
+import me.zpleum.zmystic.quest.managers.ProgressAggregator;
+import me.zpleum.zmystic.quest.managers.QuestExpiryScheduler;
+import me.zpleum.zmystic.quest.managers.QuestIndex;
+import me.zpleum.zmystic.quest.managers.RewardDeliveryQueue;
+import me.zpleum.zmystic.quest.managers.SpawnSiteFinder;
+import me.zpleum.zmystic.quest.managers.StructureCache;
+import me.zpleum.zmystic.quest.models.QuestType;
 import me.zpleum.zmystic.quest.models.QuestNPC;
+import me.zpleum.zmystic.quest.storage.PlayerDataWriter;
+import me.zpleum.zmystic.quest.storage.ProgressJournal;
 import me.zpleum.zmystic.quest.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -15,6 +28,7 @@ import org.bukkit.potion.PotionEffectType;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -62,6 +76,9 @@ public class AdminCommands implements CommandExecutor, TabCompleter {
             case "resetplayer":
                 handleResetPlayer(player, args);
                 break;
+            case "stats":
+                handleStatsCommand(player);
+                break;
             case "help":
             default:
                 showHelp(player);
@@ -175,6 +192,7 @@ public class AdminCommands implements CommandExecutor, TabCompleter {
                 MessageUtils.sendMessage(player, "&eNo active NPCs found for player &6" + targetPlayer.getName() + "&e.");
             } else {
                 MessageUtils.sendMessage(player, "&eNo active NPCs found.");
+                showPoolStats(player);
             }
             return;
         }
@@ -193,6 +211,23 @@ public class AdminCommands implements CommandExecutor, TabCompleter {
                             "&7, ID: &f" + npc.getUuid() + "&7)"
             );
         }
+
+        if (targetPlayer == null) {
+            showPoolStats(player);
+        }
+    }
+
+    private void showPoolStats(Player player) {
+        NPCPool pool = plugin.getNPCManager().getNPCPool();
+        MessageUtils.sendMessage(player, String.format("&6NPC pool: &f%.1f%% &7hit rate (&f%d &7hits, &f%d &7misses), &f%d &7created, &f%d &7destroyed",
+                pool.getHitRate(), pool.getHits(), pool.getMisses(), pool.getCreated(), pool.getDestroyed()));
+
+        StringBuilder ready = new StringBuilder("&6Ready:");
+        for (Map.Entry<String, Integer> entry : pool.getIdleCounts().entrySet()) {
+            ready.append(" &e").append(entry.getKey()).append(" &f").append(entry.getValue())
+                    .append("&7/").append(pool.getSize());
+        }
+        MessageUtils.sendMessage(player, ready.toString());
     }
 
     private void handleResetPlayer(Player player, String[] args) {
@@ -212,6 +247,83 @@ public class AdminCommands implements CommandExecutor, TabCompleter {
         MessageUtils.sendMessage(player, "&aReset movement state for player " + target.getName());
     }
 
+    private void handleStatsCommand(Player player) {
+        PlayerDataWriter writer = plugin.getQuestManager().getDataWriter();
+
+        MessageUtils.sendMessage(player, "&6MysticQuest Statistics:");
+        MessageUtils.sendMessage(player, "&eStorage: &f" + writer.getDirtyCount() + " &7dirty, &f"
+                + writer.getPendingWrites() + " &7queued, &f" + writer.getFlushCount() + " &7flushes");
+        MessageUtils.sendMessage(player, String.format("&eFlush latency: &f%.2f &7ms last, &f%.2f &7ms avg, &f%.2f &7ms max",
+                writer.getLastFlushMillis(), writer.getAverageFlushMillis(), writer.getMaxFlushMillis()));
+
+        ProgressJournal journal = plugin.getQuestManager().getJournal();
+        if (journal != null) {
+            MessageUtils.sendMessage(player, "&eJournal: &f" + journal.getAppendedRecords() + " &7records, &f"
+                    + journal.getCommitCount() + " &7commits, &f" + journal.getCompactionCount() + " &7compactions, &f"
+                    + journal.getTailSize() + " &7players pending");
+            MessageUtils.sendMessage(player, String.format("&eCommit latency: &f%.2f &7ms last, &f%.2f &7ms max",
+                    journal.getLastCommitMillis(), journal.getMaxCommitMillis()));
+        } else {
+            MessageUtils.sendMessage(player, "&eJournal: &cdisabled");
+        }
+
+        NPCManager npcManager = plugin.getNPCManager();
+        MessageUtils.sendMessage(player, "&eNPCs: &f" + npcManager.getActiveNPCs().size() + " &7active, &f"
+                + npcManager.getSpawns() + " &7spawned in &f" + npcManager.getSpawnAttempts() + " &7attempts, &f"
+                + npcManager.getQueuedSpawnChecks() + " &7players scheduled");
+
+        StringBuilder encounters = new StringBuilder("&eEncounters:");
+        npcManager.getEncounterCounts().forEach((state, count) ->
+                encounters.append(" &7").append(state.name()).append(" &f").append(count));
+        MessageUtils.sendMessage(player, encounters.toString());
+        MessageUtils.sendMessage(player, String.format("&eEncounter tick: &f%.3f &7ms avg, &f%.2f &7ms max, &f%d &7ticks over budget",
+                npcManager.getAverageEncounterMillis(), npcManager.getMaxEncounterMillis(), npcManager.getOverBudgetTicks()));
+
+        SpawnSiteFinder spawnSiteFinder = npcManager.getSpawnSiteFinder();
+        MessageUtils.sendMessage(player, String.format("&eSpawn sites: &f%d &7searches, &f%.1f%% &7found, &f%.2f &7ms avg (&f%.2f &7ms max) async, &f%.2f &7ms snapshots, &f%d &7pending",
+                spawnSiteFinder.getSearches(), spawnSiteFinder.getSuccessRate(), spawnSiteFinder.getAverageSearchMillis(),
+                spawnSiteFinder.getMaxSearchMillis(), spawnSiteFinder.getAverageSnapshotMillis(), spawnSiteFinder.getPending()));
+
+        QuestIndex questIndex = plugin.getQuestManager().getQuestIndex();
+        StringBuilder tracked = new StringBuilder("&eTracked quests:");
+        for (QuestType type : QuestType.values()) {
+            tracked.append(plugin.getListenerRegistry().isRegistered(type) ? " &a" : " &8")
+                    .append(type.name()).append(" &f").append(questIndex.getTrackedCount(type));
+        }
+        MessageUtils.sendMessage(player, tracked.toString());
+
+        StructureCache structureCache = plugin.getStructureCache();
+        MessageUtils.sendMessage(player, String.format("&eStructure cache: &f%d &7hits, &f%d &7misses, &f%d &7searches (&f%.2f &7ms avg, &f%.2f &7ms max), &f%d &7queued",
+                structureCache.getHits(), structureCache.getMisses(), structureCache.getLookups(),
+                structureCache.getAverageLookupMillis(), structureCache.getMaxLookupMillis(), structureCache.getQueuedLookups()));
+
+        ExploreTracker exploreTracker = plugin.getExploreTracker();
+        MessageUtils.sendMessage(player, "&eExplore checks: &f" + exploreTracker.getEvaluationsPerSecond() + " &7per second, &f"
+                + exploreTracker.getEvaluations() + " &7total, &f" + exploreTracker.getSectionCrossings() + " &7section crossings");
+
+        CollectTracker collectTracker = plugin.getCollectTracker();
+        MessageUtils.sendMessage(player, "&eCollect counters: &f" + collectTracker.getTrackedPlayers() + " &7players, &f"
+                + collectTracker.getAdjustments() + " &7adjustments, &f" + collectTracker.getRecounts() + " &7recounts");
+
+        ProgressAggregator aggregator = plugin.getProgressAggregator();
+        MessageUtils.sendMessage(player, "&eProgress: &f" + aggregator.getIncrements() + " &7increments in &f"
+                + aggregator.getUpdates() + " &7updates, largest tick &f" + aggregator.getLargestBatch());
+
+        QuestExpiryScheduler expiryScheduler = plugin.getExpiryScheduler();
+        MessageUtils.sendMessage(player, "&eTime limits: &f" + expiryScheduler.getScheduled() + " &7scheduled, &f"
+                + expiryScheduler.getExpired() + " &7expired");
+
+        RewardDeliveryQueue rewardQueue = plugin.getRewardQueue();
+        MessageUtils.sendMessage(player, "&eRewards: &f" + rewardQueue.getQueueSize() + " &7queued (&f"
+                + rewardQueue.getLargestQueue() + " &7max), &f" + rewardQueue.getDelivered() + " &7delivered, &f"
+                + rewardQueue.getDeferred() + " &7deferred, &f" + rewardQueue.getUndeliveredPlayers() + " &7players waiting");
+        for (Map.Entry<String, RewardDeliveryQueue.CommandStats> entry : rewardQueue.getCommandStats().entrySet()) {
+            RewardDeliveryQueue.CommandStats stats = entry.getValue();
+            MessageUtils.sendMessage(player, String.format("&7  /%s: &f%d &7runs, &f%.2f &7ms avg, &f%.2f &7ms max",
+                    entry.getKey(), stats.getCount(), stats.getAverageMillis(), stats.getMaxMillis()));
+        }
+    }
+
     private void resetPlayerState(Player player) {
         // Remove all NPC-related effects
         player.removePotionEffect(PotionEffectType.SLOWNESS);
@@ -243,6 +355,7 @@ public class AdminCommands implements CommandExecutor, TabCompleter {
         MessageUtils.sendMessage(player, "&e/mqadmin killall [player] &7- Remove all active NPCs, optionally only for a specific player");
         MessageUtils.sendMessage(player, "&e/mqadmin list [player] &7- List all active NPCs, optionally only for a specific player");
         MessageUtils.sendMessage(player, "&e/mqadmin resetplayer <player> &7- Reset a player's movement state");
+        MessageUtils.sendMessage(player, "&e/mqadmin stats &7- Show storage and performance statistics");
         MessageUtils.sendMessage(player, "&e/mqadmin help &7- Show this help message");
     }
 
@@ -252,7 +365,7 @@ public class AdminCommands implements CommandExecutor, TabCompleter {
 
         if (args.length == 1) {
             // First argument - subcommands
-            List<String> subcommands = List.of("summon", "kill", "killall", "list", "resetplayer", "help");
+            List<String> subcommands = List.of("summon", "kill", "killall", "list", "resetplayer", "stats", "help");
             String input = args[0].toLowerCase();
 
             for (String subcmd : subcommands) {
@@ -1,9 +1,12 @@
 package me.zpleum.zmystic.quest.commands;
 
 import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.managers.LeaderboardManager;
 import me.zpleum.zmystic.quest.models.Quest;
 import me.zpleum.zmystic.quest.utils.MessageUtils;
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -13,6 +16,7 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class MysticQuestCommand implements CommandExecutor, TabCompleter {
@@ -80,14 +84,36 @@ public class MysticQuestCommand implements CommandExecutor, TabCompleter {
                     return true;
                 }
                 
-                Player targetPlayerXP = Bukkit.getPlayer(args[1]);
-                if (targetPlayerXP == null) {
-                    MessageUtils.sendMessage((Player) sender, "&cPlayer not found.");
+                // Online and ranked players are known by name, anyone with XP to reset is ranked
+                LeaderboardManager leaderboard = plugin.getQuestManager().getLeaderboard();
+                UUID targetId = leaderboard.findPlayer(args[1]);
+                if (targetId != null) {
+                    resetXP((Player) sender, targetId, leaderboard.getName(targetId));
                     return true;
                 }
                 
-                plugin.getQuestManager().addXP(targetPlayerXP.getUniqueId(), -plugin.getQuestManager().getPlayerXP(targetPlayerXP.getUniqueId()));
-                MessageUtils.sendMessage((Player) sender, "&aReset XP for player " + targetPlayerXP.getName());
+                // Other names may need a blocking profile lookup, so resolve them off the main thread
+                String name = args[1];
+                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                    @SuppressWarnings("deprecation")
+                    OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(name);
+                    Bukkit.getScheduler().runTask(plugin, () -> {
+                        if (!offlinePlayer.hasPlayedBefore()) {
+                            MessageUtils.sendMessage((Player) sender, "&cPlayer not found.");
+                            return;
+                        }
+                        resetXP((Player) sender, offlinePlayer.getUniqueId(),
+                                offlinePlayer.getName() != null ? offlinePlayer.getName() : name);
+                    });
+                });
+                return true;
+                
+            case "top":
+                sendTopPage(sender, args);
+                return true;
+                
+            case "rank":
+                sendRank(sender, args);
                 return true;
                 
             default:
@@ -96,12 +122,87 @@ public class MysticQuestCommand implements CommandExecutor, TabCompleter {
         }
     }
     
+    // Offline players are supported, their data is updated asynchronously
+    private void resetXP(Player sender, UUID targetId, String targetName) {
+        plugin.getQuestManager().setPlayerXP(targetId, 0)
+                .thenRun(() -> Bukkit.getScheduler().runTask(plugin, () ->
+                        MessageUtils.sendMessage(sender, "&aReset XP for player " + targetName)));
+    }
+    
+    private void sendTopPage(CommandSender sender, String[] args) {
+        LeaderboardManager leaderboard = plugin.getQuestManager().getLeaderboard();
+        int pageSize = Math.max(1, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("leaderboard.page-size", 10));
+        int pages = Math.max(1, (leaderboard.size() + pageSize - 1) / pageSize);
+        
+        int page = 1;
+        if (args.length > 1) {
+            try {
+                page = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                send(sender, "&cUsage: /mysticquest top [page]");
+                return;
+            }
+        }
+        page = Math.max(1, Math.min(page, pages));
+        
+        send(sender, "&6Mystic XP Leaderboard &7(page " + page + "/" + pages + ")");
+        if (leaderboard.size() == 0) {
+            send(sender, "&7Nobody has earned any Mystic XP yet.");
+            return;
+        }
+        
+        int start = (page - 1) * pageSize;
+        int end = Math.min(start + pageSize, leaderboard.size());
+        for (int i = start; i < end; i++) {
+            UUID playerId = leaderboard.getPlayerAt(i);
+            send(sender, "&e#" + (i + 1) + " &f" + leaderboard.getName(playerId) + " &7- &f" + leaderboard.getXP(playerId) + " XP");
+        }
+    }
+    
+    private void sendRank(CommandSender sender, String[] args) {
+        LeaderboardManager leaderboard = plugin.getQuestManager().getLeaderboard();
+        
+        UUID playerId;
+        if (args.length > 1) {
+            playerId = leaderboard.findPlayer(args[1]);
+            if (playerId == null) {
+                send(sender, "&cPlayer &e" + args[1] + " &cis not on the leaderboard.");
+                return;
+            }
+        } else if (sender instanceof Player) {
+            playerId = ((Player) sender).getUniqueId();
+        } else {
+            sender.sendMessage("Usage: /mysticquest rank <player>");
+            return;
+        }
+        
+        int rank = leaderboard.getRank(playerId);
+        String name = leaderboard.getName(playerId);
+        if (rank < 0) {
+            send(sender, "&e" + name + " &7has no Mystic XP yet.");
+        } else {
+            send(sender, "&e" + name + " &7is ranked &f#" + rank + " &7of &f" + leaderboard.size()
+                    + " &7with &f" + leaderboard.getXP(playerId) + " XP");
+        }
+    }
+    
+    private void send(CommandSender sender, String message) {
+        if (sender instanceof Player) {
+            MessageUtils.sendMessage((Player) sender, message);
+        } else {
+            sender.sendMessage(MessageUtils.colorize(message));
+        }
+    }
+    
     private void sendHelpMessage(CommandSender sender) {
         if (sender instanceof Player) {
             Player player = (Player) sender;
             
             MessageUtils.sendMessage(player, "&6MysticQuest Commands:");
             MessageUtils.sendMessage(player, "&e/mysticquest info &7- View your quest information");
+            MessageUtils.sendMessage(player, "&e/mysticquest top [page] &7- View the Mystic XP leaderboard");
+            MessageUtils.sendMessage(player, "&e/mysticquest rank [player] &7- View a leaderboard rank");
             
             if (player.hasPermission("mysticquest.admin")) {
                 MessageUtils.sendMessage(player, "&e/mysticquest reload &7- Reload configuration files");
@@ -110,6 +211,8 @@ public class MysticQuestCommand implements CommandExecutor, TabCompleter {
             }
         } else {
             sender.sendMessage("MysticQuest Commands:");
+            sender.sendMessage("/mysticquest top [page] - View the Mystic XP leaderboard");
+            sender.sendMessage("/mysticquest rank <player> - View a leaderboard rank");
             sender.sendMessage("/mysticquest reload - Reload configuration files");
             sender.sendMessage("/mysticquest resetxp <player> - Reset a player's Mystic XP");
         }
@@ -139,6 +242,8 @@ public class MysticQuestCommand implements CommandExecutor, TabCompleter {
         if (args.length == 1) {
             List<String> commands = new ArrayList<>();
             commands.add("info");
+            commands.add("top");
+            commands.add("rank");
             
             if (sender.hasPermission("mysticquest.admin")) {
                 commands.add("reload");
@@ -164,7 +269,8 @@ public class MysticQuestCommand implements CommandExecutor, TabCompleter {
                             .filter(type -> type.toLowerCase().startsWith(input))
                             .collect(Collectors.toList()));
                 }
-            } else if (args[0].equalsIgnoreCase("resetxp") && sender.hasPermission("mysticquest.admin")) {
+            } else if (args[0].equalsIgnoreCase("resetxp") && sender.hasPermission("mysticquest.admin")
+                    || args[0].equalsIgnoreCase("rank")) {
                 // Add online player names
                 String input = args[1].toLowerCase();
                 for (Player player : Bukkit.getOnlinePlayers()) {
@@ -92,6 +92,14 @@ public class ConfigManager {
         if (config.getKeys(false).isEmpty()) {
             // NPC settings
             config.set("npc.spawn-interval", 300); // in seconds
+            config.set("npc.spawn-chance", 30); // percent per spawn check
+            config.set("npc.spawn-cooldown", 0); // in seconds after a player's NPC leaves
+            config.set("npc.spawn-checks-per-tick", 2);
+            config.set("npc.encounter-budget", 2); // in milliseconds per tick
+            config.set("npc.pool.enabled", true);
+            config.set("npc.pool.size", 2); // ready NPCs kept per NPC type
+            config.set("npc.pool.warm-up", 1); // ready NPCs created per NPC type at startup
+            config.set("npc.pool.warm-up-per-tick", 1);
             config.set("npc.despawn-time", 60); // in seconds
             config.set("npc.max-distance", 30); // max distance from player to spawn NPC
             config.set("npc.approach-distance", 5); // distance at which NPC approaches player
@@ -103,11 +111,32 @@ public class ConfigManager {
             config.set("quest.max-active-quests", 3);
             config.set("quest.quest-item.material", "PAPER");
             config.set("quest.quest-item.glow", true);
+            config.set("quest.collect-reconcile-interval", 5); // in seconds
+            config.set("quest.reward-command-budget", 2); // in milliseconds per tick
             
             // XP settings
             config.set("xp.enabled", true);
             config.set("xp.storage-type", "FILE"); // FILE or DATABASE
             
+            // Storage settings
+            config.set("storage.flush-interval", 5); // in seconds
+            config.set("storage.shutdown-timeout", 10); // in seconds
+            config.set("storage.journal.group-commit", 50); // in milliseconds
+            config.set("storage.journal.compact-interval", 300); // in seconds
+
+            config.set("storage.database.file", "playerdata.db");
+            config.set("storage.database.pool-size", 3);
+
+            // Leaderboard settings
+            config.set("leaderboard.save-interval", 60); // in seconds
+            config.set("leaderboard.page-size", 10);
+
+            // Exploration settings
+            config.set("explore.structure-search-radius", 64); // in chunks, at most 100
+            config.set("explore.structure-lookup-budget", 2); // in milliseconds per tick
+            config.set("explore.structure-save-interval", 300); // in seconds
+            config.set("explore.sample-interval", 2); // in seconds
+            
             // Debug settings
             config.set("debug", false);
             
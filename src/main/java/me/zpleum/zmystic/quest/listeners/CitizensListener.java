@@ -0,0 +1,21 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import net.citizensnpcs.api.event.CitizensEnableEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+public class CitizensListener implements Listener {
+
+    private final MysticQuest plugin;
+
+    public CitizensListener(MysticQuest plugin) {
+        this.plugin = plugin;
+    }
+
+    // Citizens loads its saved NPCs after the plugins are enabled, sweep them once they are in
+    @EventHandler
+    public void onCitizensEnable(CitizensEnableEvent event) {
+        plugin.getNPCManager().getNPCPool().removeLeftovers();
+    }
+}
@@ -0,0 +1,83 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.managers.CollectTracker;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.CraftItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Feeds inventory changes of players with COLLECT quests to the collect tracker, which keeps
+ * the counts and progresses the quests
+ */
+class CollectQuestListener extends QuestProgressListener {
+
+    CollectQuestListener(MysticQuest plugin) {
+        super(plugin, QuestType.COLLECT);
+    }
+
+    private CollectTracker tracker() {
+        return plugin.getCollectTracker();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickupItem(EntityPickupItemEvent event) {
+        if (!(event.getEntity() instanceof Player)) return;
+
+        // The picked up stack is not in the inventory yet, completing now would let the player keep it
+        Player player = (Player) event.getEntity();
+        if (tracker().isTracked(player.getUniqueId(), event.getItem().getItemStack().getType())) {
+            tracker().markDirty(player.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDropItem(PlayerDropItemEvent event) {
+        ItemStack item = event.getItemDrop().getItemStack();
+        tracker().adjust(event.getPlayer(), item.getType(), -item.getAmount());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCraftItem(CraftItemEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (tracker().isTracked(event.getPlayer().getUniqueId(), event.getItemInHand().getType())) {
+            tracker().markDirty(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        markDirty(event.getEntity());
+    }
+
+    // The inventory only changes after these events, the recount runs at the end of the tick
+    private void markDirty(HumanEntity entity) {
+        if (entity instanceof Player && index().hasAny(entity.getUniqueId(), QuestType.COLLECT)) {
+            tracker().markDirty(entity.getUniqueId());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.inventory.CraftItemEvent;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Progresses CRAFT quests
+ */
+class CraftQuestListener extends QuestProgressListener {
+
+    CraftQuestListener(MysticQuest plugin) {
+        super(plugin, QuestType.CRAFT);
+    }
+
+    @EventHandler
+    public void onCraftItem(CraftItemEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) return;
+
+        ItemStack crafted = event.getCurrentItem();
+        if (crafted == null || crafted.getType() == Material.AIR) return;
+        if (!index().isTracked(QuestType.CRAFT, crafted.getType())) return;
+
+        Player player = (Player) event.getWhoClicked();
+        incrementProgress(index().find(player.getUniqueId(), QuestType.CRAFT, crafted.getType()));
+    }
+}
@@ -0,0 +1,30 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+/**
+ * Feeds moves of players with EXPLORE quests to the explore tracker, which does the checking
+ */
+class ExploreQuestListener extends QuestProgressListener {
+
+    ExploreQuestListener(MysticQuest plugin) {
+        super(plugin, QuestType.EXPLORE);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Player player = event.getPlayer();
+
+        // Nothing to check for players without exploration quests
+        if (!index().hasAny(player.getUniqueId(), QuestType.EXPLORE)) {
+            return;
+        }
+
+        plugin.getExploreTracker().onMove(player, event.getFrom(), event.getTo());
+    }
+}
@@ -0,0 +1,111 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.managers.QuestIndex;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.entity.EntityTameEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerFishEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+/**
+ * Progresses INTERACT quests
+ */
+class InteractQuestListener extends QuestProgressListener {
+
+    private static final String RING_BELL = QuestIndex.interactKey("BELL", "RING");
+    private static final String FEED_PARROT = QuestIndex.interactKey("PARROT", "FEED");
+    private static final String FISH_SALMON = QuestIndex.interactKey("SALMON", "FISH");
+    private static final String MILK_COW = QuestIndex.interactKey("COW", "MILK");
+    private static final String TRADE_VILLAGER = QuestIndex.interactKey("VILLAGER", "TRADE");
+
+    InteractQuestListener(MysticQuest plugin) {
+        super(plugin, QuestType.INTERACT);
+    }
+
+    @EventHandler
+    public void onEntityTame(EntityTameEvent event) {
+        if (!(event.getOwner() instanceof Player)) return;
+
+        Player player = (Player) event.getOwner();
+        handleInteractQuest(player, QuestIndex.interactKey(event.getEntity().getType().name(), "TAME"));
+    }
+
+    @EventHandler
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK || event.getClickedBlock() == null) return;
+
+        Player player = event.getPlayer();
+        Block clicked = event.getClickedBlock();
+
+        // Ring bell
+        if (clicked.getType() == Material.BELL) {
+            handleInteractQuest(player, RING_BELL);
+        }
+
+        // Check for feeding parrots, only scanning for one if someone has the quest
+        if (event.getItem() != null &&
+            event.getItem().getType() == Material.WHEAT_SEEDS &&
+            index().isTracked(QuestType.INTERACT, FEED_PARROT)) {
+
+            if (isNear(clicked, EntityType.PARROT)) {
+                handleInteractQuest(player, FEED_PARROT);
+            }
+        }
+    }
+
+    @EventHandler
+    public void onPlayerFish(PlayerFishEvent event) {
+        if (event.getState() != PlayerFishEvent.State.CAUGHT_FISH) return;
+
+        Entity caught = event.getCaught();
+        if (caught != null && caught.getType() == EntityType.SALMON) {
+            handleInteractQuest(event.getPlayer(), FISH_SALMON);
+        }
+    }
+
+    @EventHandler
+    public void onPlayerBucketFill(PlayerBucketFillEvent event) {
+        if (!index().isTracked(QuestType.INTERACT, MILK_COW)) return;
+
+        if (event.getBlockClicked() != null && isNear(event.getBlockClicked(), EntityType.COW)) {
+            handleInteractQuest(event.getPlayer(), MILK_COW);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) return;
+
+        // Check for villager trading
+        if (event.getView().getType() == InventoryType.MERCHANT &&
+            event.getSlotType() == InventoryType.SlotType.RESULT) {
+
+            handleInteractQuest((Player) event.getWhoClicked(), TRADE_VILLAGER);
+        }
+    }
+
+    private boolean isNear(Block block, EntityType entityType) {
+        for (Entity entity : block.getWorld().getNearbyEntities(block.getLocation(), 2, 2, 2)) {
+            if (entity.getType() == entityType) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void handleInteractQuest(Player player, String interactKey) {
+        if (!index().isTracked(QuestType.INTERACT, interactKey)) return;
+
+        incrementProgress(index().find(player.getUniqueId(), QuestType.INTERACT, interactKey));
+    }
+}
@@ -0,0 +1,28 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.entity.EntityDeathEvent;
+
+/**
+ * Progresses KILL quests
+ */
+class KillQuestListener extends QuestProgressListener {
+
+    KillQuestListener(MysticQuest plugin) {
+        super(plugin, QuestType.KILL);
+    }
+
+    @EventHandler
+    public void onEntityKill(EntityDeathEvent event) {
+        // Most deaths are of entities no quest is asking for
+        if (!index().isTracked(QuestType.KILL, event.getEntityType())) return;
+
+        Player killer = event.getEntity().getKiller();
+        if (killer == null) return;
+
+        incrementProgress(index().find(killer.getUniqueId(), QuestType.KILL, event.getEntityType()));
+    }
+}
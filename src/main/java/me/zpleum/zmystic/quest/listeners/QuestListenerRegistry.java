@@ -0,0 +1,83 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.managers.QuestIndex;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Subscribes the quest progress listener of each quest type only while some resident
+ * player has a quest of that type, so busy events like deaths, clicks and movement
+ * don't reach the plugin at all when nobody is tracking them.
+ */
+public class QuestListenerRegistry {
+
+    private final MysticQuest plugin;
+    private final QuestIndex questIndex;
+    private final Map<QuestType, QuestProgressListener> listeners = new EnumMap<>(QuestType.class);
+    private final Set<QuestType> registered = EnumSet.noneOf(QuestType.class);
+
+    public QuestListenerRegistry(MysticQuest plugin) {
+        this.plugin = plugin;
+        this.questIndex = plugin.getQuestManager().getQuestIndex();
+
+        add(new KillQuestListener(plugin));
+        add(new CraftQuestListener(plugin));
+        add(new CollectQuestListener(plugin));
+        add(new InteractQuestListener(plugin));
+        add(new ExploreQuestListener(plugin));
+    }
+
+    private void add(QuestProgressListener listener) {
+        listeners.put(listener.getType(), listener);
+    }
+
+    /**
+     * Registers the listeners needed by the quests indexed so far and starts following changes
+     */
+    public void start() {
+        questIndex.setInterestListener(this::onInterestChanged);
+        for (QuestType type : listeners.keySet()) {
+            update(type);
+        }
+    }
+
+    public void shutdown() {
+        questIndex.setInterestListener(null);
+        for (QuestType type : registered) {
+            HandlerList.unregisterAll(listeners.get(type));
+        }
+        registered.clear();
+    }
+
+    public boolean isRegistered(QuestType type) {
+        return registered.contains(type);
+    }
+
+    private void onInterestChanged(QuestType type) {
+        // Player data is indexed from the I/O thread, listeners can only change on the main thread
+        if (Bukkit.isPrimaryThread()) {
+            update(type);
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> update(type));
+        }
+    }
+
+    private void update(QuestType type) {
+        QuestProgressListener listener = listeners.get(type);
+        if (listener == null) return;
+
+        boolean tracked = questIndex.isTracked(type);
+        if (tracked && registered.add(type)) {
+            Bukkit.getPluginManager().registerEvents(listener, plugin);
+        } else if (!tracked && registered.remove(type)) {
+            HandlerList.unregisterAll(listener);
+        }
+    }
+}
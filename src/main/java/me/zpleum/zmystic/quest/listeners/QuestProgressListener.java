@@ -0,0 +1,42 @@
+package me.zpleum.zmystic.quest.listeners;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.managers.QuestIndex;
+import me.zpleum.zmystic.quest.models.Quest;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.event.Listener;
+
+import java.util.List;
+
+/**
+ * Base of the listeners that progress quests of a single type. These are only
+ * registered while at least one resident player has a quest of that type.
+ */
+abstract class QuestProgressListener implements Listener {
+
+    protected final MysticQuest plugin;
+    protected final QuestType type;
+
+    QuestProgressListener(MysticQuest plugin, QuestType type) {
+        this.plugin = plugin;
+        this.type = type;
+    }
+
+    QuestType getType() {
+        return type;
+    }
+
+    protected QuestIndex index() {
+        return plugin.getQuestManager().getQuestIndex();
+    }
+
+    /**
+     * Adds one to the progress of each quest. Increments are applied together on the next
+     * tick, which also sends the progress message and completes the quests that are done.
+     */
+    protected void incrementProgress(List<Quest> quests) {
+        for (Quest quest : quests) {
+            plugin.getProgressAggregator().increment(quest);
+        }
+    }
+}
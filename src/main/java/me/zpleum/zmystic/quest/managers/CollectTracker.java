@@ -0,0 +1,252 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.models.Quest;
+import me.zpleum.zmystic.quest.models.QuestType;
+import me.zpleum.zmystic.quest.utils.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps a count of each material players have COLLECT quests for, so quest progress is a map
+ * read instead of an inventory scan per click.
+ * <p>
+ * Drops adjust the count directly. Inventory changes that are only known after the event
+ * (pickups, clicks, drags, crafting, death) mark the player for a recount at the end of the tick,
+ * done in one pass over the inventory for all of their tracked materials. Every player with a
+ * COLLECT quest is also recounted on an interval, to catch changes made without an event.
+ * All methods must be called on the main thread.
+ */
+public class CollectTracker {
+
+    private final MysticQuest plugin;
+    private final Map<UUID, Map<Material, Integer>> counts = new HashMap<>();
+    private final Set<UUID> dirty = new LinkedHashSet<>();
+    private BukkitTask recountTask;
+    private BukkitTask reconcileTask;
+
+    // Metrics
+    private long adjustments = 0;
+    private long recounts = 0;
+
+    // Config values
+    private int reconcileInterval;
+
+    public CollectTracker(MysticQuest plugin) {
+        this.plugin = plugin;
+        loadConfig();
+    }
+
+    private void loadConfig() {
+        reconcileInterval = Math.max(1, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("quest.collect-reconcile-interval", 5));
+    }
+
+    public void start() {
+        recountTask = Bukkit.getScheduler().runTaskTimer(plugin, this::recountDirty, 1L, 1L);
+
+        long interval = reconcileInterval * 20L;
+        reconcileTask = Bukkit.getScheduler().runTaskTimer(plugin, this::reconcile, interval, interval);
+    }
+
+    public void shutdown() {
+        if (recountTask != null) {
+            recountTask.cancel();
+            recountTask = null;
+        }
+        if (reconcileTask != null) {
+            reconcileTask.cancel();
+            reconcileTask = null;
+        }
+        counts.clear();
+        dirty.clear();
+    }
+
+    /**
+     * @return Whether the player has a COLLECT quest for this material
+     */
+    public boolean isTracked(UUID playerId, Material material) {
+        return !plugin.getQuestManager().getQuestIndex().find(playerId, QuestType.COLLECT, material).isEmpty();
+    }
+
+    /**
+     * @return The counted amount of a tracked material, 0 if it is not tracked
+     */
+    public int getCount(UUID playerId, Material material) {
+        Map<Material, Integer> playerCounts = counts.get(playerId);
+        return playerCounts != null ? playerCounts.getOrDefault(material, 0) : 0;
+    }
+
+    /**
+     * Adjusts the count of a material by a known amount that already left the inventory, as for
+     * a drop. Gains must go through {@link #markDirty(UUID)} instead, a quest is only completed
+     * and its items taken once they are really in the inventory.
+     */
+    public void adjust(Player player, Material material, int delta) {
+        if (delta > 0) {
+            markDirty(player.getUniqueId());
+            return;
+        }
+
+        if (!isTracked(player.getUniqueId(), material)) return;
+
+        Map<Material, Integer> playerCounts = counts.get(player.getUniqueId());
+        if (playerCounts == null || !playerCounts.containsKey(material)) {
+            // Never counted, a full count is needed first
+            markDirty(player.getUniqueId());
+            return;
+        }
+
+        adjustments++;
+        playerCounts.put(material, Math.max(0, playerCounts.get(material) + delta));
+        applyProgress(player, material);
+    }
+
+    /**
+     * Recounts the player's tracked materials at the end of the tick
+     */
+    public void markDirty(UUID playerId) {
+        dirty.add(playerId);
+    }
+
+    public void clear(UUID playerId) {
+        counts.remove(playerId);
+        dirty.remove(playerId);
+    }
+
+    private void reconcile() {
+        QuestIndex questIndex = plugin.getQuestManager().getQuestIndex();
+        if (!questIndex.isTracked(QuestType.COLLECT)) {
+            counts.clear();
+            return;
+        }
+
+        counts.keySet().removeIf(playerId -> Bukkit.getPlayer(playerId) == null);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (questIndex.hasAny(player.getUniqueId(), QuestType.COLLECT)) {
+                dirty.add(player.getUniqueId());
+            } else {
+                counts.remove(player.getUniqueId());
+            }
+        }
+    }
+
+    private void recountDirty() {
+        if (dirty.isEmpty()) return;
+
+        List<UUID> players = new ArrayList<>(dirty);
+        dirty.clear();
+
+        for (UUID playerId : players) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null) {
+                counts.remove(playerId);
+                continue;
+            }
+            recount(player);
+        }
+    }
+
+    private void recount(Player player) {
+        Map<Material, Integer> playerCounts = new EnumMap<>(Material.class);
+        for (Object target : plugin.getQuestManager().getQuestIndex().getTargets(player.getUniqueId(), QuestType.COLLECT)) {
+            if (target instanceof Material) {
+                playerCounts.put((Material) target, 0);
+            }
+        }
+
+        if (playerCounts.isEmpty()) {
+            counts.remove(player.getUniqueId());
+            return;
+        }
+
+        // One pass over the inventory for all tracked materials
+        recounts++;
+        for (ItemStack item : player.getInventory().getContents()) {
+            if (item != null && playerCounts.containsKey(item.getType())) {
+                playerCounts.merge(item.getType(), item.getAmount(), Integer::sum);
+            }
+        }
+        counts.put(player.getUniqueId(), playerCounts);
+
+        for (Material material : playerCounts.keySet()) {
+            applyProgress(player, material);
+        }
+    }
+
+    private void applyProgress(Player player, Material material) {
+        List<Quest> quests = plugin.getQuestManager().getQuestIndex()
+                .find(player.getUniqueId(), QuestType.COLLECT, material);
+
+        for (Quest quest : quests) {
+            int targetAmount = quest.getTargetAmount();
+            int progress = Math.min(getCount(player.getUniqueId(), material), targetAmount);
+            if (progress == quest.getProgress()) continue;
+
+            // Update progress
+            plugin.getQuestManager().updateQuestProgress(quest, progress);
+
+            // Send progress message
+            String message = "Quest progress: " + quest.getProgress() + "/" + quest.getTargetAmount();
+            MessageUtils.sendMessage(player, message);
+
+            // Check if completed
+            if (quest.isCompleted()) {
+                plugin.getQuestManager().completeQuest(quest, player);
+                removeItems(player, material, targetAmount);
+            }
+        }
+    }
+
+    // Takes the collected items once the quest is complete
+    private void removeItems(Player player, Material material, int amount) {
+        PlayerInventory inventory = player.getInventory();
+        int remainingToRemove = amount;
+
+        for (int i = 0; i < inventory.getSize() && remainingToRemove > 0; i++) {
+            ItemStack item = inventory.getItem(i);
+            if (item != null && item.getType() == material) {
+                int amountToRemove = Math.min(item.getAmount(), remainingToRemove);
+                remainingToRemove -= amountToRemove;
+
+                if (amountToRemove == item.getAmount()) {
+                    inventory.setItem(i, null);
+                } else {
+                    item.setAmount(item.getAmount() - amountToRemove);
+                }
+            }
+        }
+        player.updateInventory();
+
+        Map<Material, Integer> playerCounts = counts.get(player.getUniqueId());
+        if (playerCounts != null && playerCounts.containsKey(material)) {
+            playerCounts.put(material, Math.max(0, playerCounts.get(material) - (amount - remainingToRemove)));
+        }
+    }
+
+    public long getAdjustments() {
+        return adjustments;
+    }
+
+    public long getRecounts() {
+        return recounts;
+    }
+
+    public int getTrackedPlayers() {
+        return counts.size();
+    }
+}
@@ -0,0 +1,173 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.models.Quest;
+import me.zpleum.zmystic.quest.models.QuestTemplate;
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.StructureType;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Decides when EXPLORE quests are checked. Moves only queue a check when the player crosses
+ * into another 16x16x16 chunk section, and every player with an EXPLORE quest is also sampled
+ * on a fixed interval. Queued checks run once per player at the end of the tick, however many
+ * moves led to them. All methods must be called on the main thread.
+ */
+public class ExploreTracker {
+
+    private final MysticQuest plugin;
+    private final Set<UUID> pending = new LinkedHashSet<>();
+    private BukkitTask evaluateTask;
+    private BukkitTask sampleTask;
+
+    // Metrics
+    private long sectionCrossings = 0;
+    private long evaluations = 0;
+    private int ticks = 0;
+    private int windowEvaluations = 0;
+    private int evaluationsPerSecond = 0;
+
+    // Config values
+    private int sampleInterval;
+
+    public ExploreTracker(MysticQuest plugin) {
+        this.plugin = plugin;
+        loadConfig();
+    }
+
+    private void loadConfig() {
+        sampleInterval = Math.max(1, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("explore.sample-interval", 2));
+    }
+
+    public void start() {
+        evaluateTask = Bukkit.getScheduler().runTaskTimer(plugin, this::evaluatePending, 1L, 1L);
+
+        long interval = sampleInterval * 20L;
+        sampleTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, interval, interval);
+    }
+
+    public void shutdown() {
+        if (evaluateTask != null) {
+            evaluateTask.cancel();
+            evaluateTask = null;
+        }
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Queues a check for a player with EXPLORE quests if the move left the chunk section
+     */
+    public void onMove(Player player, Location from, Location to) {
+        if (to == null) return;
+
+        if (from.getWorld() == to.getWorld()
+                && from.getBlockX() >> 4 == to.getBlockX() >> 4
+                && from.getBlockY() >> 4 == to.getBlockY() >> 4
+                && from.getBlockZ() >> 4 == to.getBlockZ() >> 4) {
+            return;
+        }
+
+        sectionCrossings++;
+        pending.add(player.getUniqueId());
+    }
+
+    private void sample() {
+        QuestIndex questIndex = plugin.getQuestManager().getQuestIndex();
+        if (!questIndex.isTracked(QuestType.EXPLORE)) return;
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (questIndex.hasAny(player.getUniqueId(), QuestType.EXPLORE)) {
+                pending.add(player.getUniqueId());
+            }
+        }
+    }
+
+    private void evaluatePending() {
+        if (++ticks % 20 == 0) {
+            evaluationsPerSecond = windowEvaluations;
+            windowEvaluations = 0;
+        }
+
+        if (pending.isEmpty()) return;
+
+        List<UUID> players = new ArrayList<>(pending);
+        pending.clear();
+
+        for (UUID playerId : players) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                evaluate(player);
+            }
+        }
+    }
+
+    private void evaluate(Player player) {
+        List<Quest> quests = plugin.getQuestManager().getQuestIndex()
+                .find(player.getUniqueId(), QuestType.EXPLORE, QuestType.EXPLORE);
+        if (quests.isEmpty()) return;
+
+        evaluations++;
+        windowEvaluations++;
+
+        Location location = player.getLocation();
+        String biome = null;
+
+        for (Quest quest : quests) {
+            QuestTemplate template = quest.getTemplate();
+            String targetBiome = template.getBiome();
+            StructureType targetStructure = template.getStructure();
+
+            // A structure that doesn't exist on this server can never be found
+            if (template.hasUnknownStructure()) continue;
+
+            // Looked up once per check and shared by all of the player's quests
+            if (targetBiome != null && biome == null) {
+                World world = location.getWorld();
+                biome = world.getBiome(location.getBlockX(), location.getBlockY(), location.getBlockZ()).name();
+            }
+
+            boolean biomeMatch = targetBiome == null || targetBiome.equals(biome);
+            boolean structureMatch = targetStructure == null ||
+                    plugin.getStructureCache().isNear(location, targetStructure);
+
+            if (biomeMatch && structureMatch) {
+                plugin.getQuestManager().updateQuestProgress(quest, 1);
+
+                if (quest.isCompleted()) {
+                    plugin.getQuestManager().completeQuest(quest, player);
+                }
+            }
+        }
+    }
+
+    public long getSectionCrossings() {
+        return sectionCrossings;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return Number of EXPLORE checks run during the last second
+     */
+    public int getEvaluationsPerSecond() {
+        return evaluationsPerSecond;
+    }
+}
@@ -0,0 +1,282 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.storage.PlayerDataStore;
+import me.zpleum.zmystic.quest.storage.PlayerDataWriter;
+import me.zpleum.zmystic.quest.storage.StorageException;
+import me.zpleum.zmystic.quest.utils.RankTree;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Global Mystic XP ranking. Kept entirely in memory and updated as XP changes,
+ * and saved to leaderboard.dat so a restart never has to scan every player file.
+ * All methods must be called on the main thread.
+ */
+public class LeaderboardManager {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final MysticQuest plugin;
+    private final File file;
+    private final RankTree ranks = new RankTree();
+    private final Map<UUID, String> names = new HashMap<>();
+    private final Map<String, UUID> playersByName = new HashMap<>();
+    private boolean dirty = false;
+    private BukkitTask saveTask;
+
+    // Players updated while a rebuild is scanning the store, their live value wins
+    private Set<UUID> updatedDuringRebuild;
+
+    // Config values
+    private int saveInterval;
+
+    public LeaderboardManager(MysticQuest plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "leaderboard.dat");
+        loadConfig();
+    }
+
+    private void loadConfig() {
+        saveInterval = Math.max(1, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("leaderboard.save-interval", 60));
+    }
+
+    /**
+     * Loads the saved leaderboard
+     * @return false if there is no saved leaderboard and it has to be rebuilt
+     */
+    public boolean load() {
+        if (!file.exists()) return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readUnsignedByte();
+            if (version > FORMAT_VERSION) {
+                plugin.getLogger().warning(file.getName() + " was written by a newer version, rebuilding it");
+                return false;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                int xp = in.readInt();
+                String name = in.readUTF();
+
+                ranks.put(playerId, xp);
+                if (!name.isEmpty()) {
+                    setName(playerId, name);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not read " + file.getName() + ", rebuilding it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rebuilds the leaderboard from the XP of every stored player. The scan runs on the I/O thread.
+     */
+    public void rebuild(PlayerDataWriter writer, PlayerDataStore store) {
+        updatedDuringRebuild = new HashSet<>();
+
+        writer.supplyAsync(() -> {
+            Map<UUID, Integer> scanned = new HashMap<>();
+            try {
+                store.scanXP((playerId, xp) -> {
+                    if (xp > 0) scanned.put(playerId, xp);
+                });
+            } catch (StorageException e) {
+                plugin.getLogger().severe("Could not rebuild the leaderboard: " + e.getMessage());
+            }
+            return scanned;
+        }).thenAccept(scanned -> {
+            if (!plugin.isEnabled()) return;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                for (Map.Entry<UUID, Integer> entry : scanned.entrySet()) {
+                    if (!updatedDuringRebuild.contains(entry.getKey())) {
+                        ranks.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                updatedDuringRebuild = null;
+                dirty = true;
+                plugin.getLogger().info("Rebuilt the leaderboard with " + ranks.size() + " players.");
+            });
+        });
+    }
+
+    public void start(PlayerDataWriter writer) {
+        long interval = saveInterval * 20L;
+        saveTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            if (!dirty) return;
+            dirty = false;
+
+            Snapshot snapshot = snapshot();
+            writer.supplyAsync(() -> {
+                write(snapshot);
+                return null;
+            });
+        }, interval, interval);
+    }
+
+    public void shutdown() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        if (dirty) {
+            dirty = false;
+            write(snapshot());
+        }
+    }
+
+    /**
+     * Records a player's new XP total
+     */
+    public void update(UUID playerId, int xp) {
+        ranks.put(playerId, xp);
+        if (updatedDuringRebuild != null) {
+            updatedDuringRebuild.add(playerId);
+        }
+
+        Player player = Bukkit.getPlayer(playerId);
+        if (xp <= 0) {
+            String name = names.remove(playerId);
+            if (name != null) {
+                playersByName.remove(name.toLowerCase(), playerId);
+            }
+        } else if (player != null) {
+            setName(playerId, player.getName());
+        }
+        dirty = true;
+    }
+
+    /**
+     * Keeps the stored name of a ranked player current, called when they join
+     */
+    public void updateName(Player player) {
+        if (!ranks.contains(player.getUniqueId())) return;
+
+        String previous = names.get(player.getUniqueId());
+        if (!player.getName().equals(previous)) {
+            setName(player.getUniqueId(), player.getName());
+            dirty = true;
+        }
+    }
+
+    private void setName(UUID playerId, String name) {
+        String previous = names.put(playerId, name);
+        if (previous != null) {
+            playersByName.remove(previous.toLowerCase(), playerId);
+        }
+        playersByName.put(name.toLowerCase(), playerId);
+    }
+
+    /**
+     * @return The 1-based rank of the player, or -1 if the player has no XP
+     */
+    public int getRank(UUID playerId) {
+        return ranks.rank(playerId);
+    }
+
+    /**
+     * @param index 0-based position on the leaderboard
+     */
+    public UUID getPlayerAt(int index) {
+        return ranks.get(index);
+    }
+
+    public int getXP(UUID playerId) {
+        return ranks.getScore(playerId);
+    }
+
+    public int size() {
+        return ranks.size();
+    }
+
+    public String getName(UUID playerId) {
+        String name = names.get(playerId);
+        if (name != null) return name;
+
+        OfflinePlayer player = Bukkit.getOfflinePlayer(playerId);
+        return player.getName() != null ? player.getName() : playerId.toString().substring(0, 8);
+    }
+
+    /**
+     * Finds a ranked player by name without a blocking profile lookup
+     */
+    public UUID findPlayer(String name) {
+        Player online = Bukkit.getPlayerExact(name);
+        if (online != null) return online.getUniqueId();
+        return playersByName.get(name.toLowerCase());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot(ranks.size());
+        ranks.forEach((playerId, xp) -> snapshot.add(playerId, xp, names.getOrDefault(playerId, "")));
+        return snapshot;
+    }
+
+    private void write(Snapshot snapshot) {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeByte(FORMAT_VERSION);
+                out.writeInt(snapshot.size);
+                for (int i = 0; i < snapshot.size; i++) {
+                    out.writeLong(snapshot.mostBits[i]);
+                    out.writeLong(snapshot.leastBits[i]);
+                    out.writeInt(snapshot.xp[i]);
+                    out.writeUTF(snapshot.names[i]);
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    // Copy of the leaderboard taken on the main thread and written on the I/O thread
+    private static final class Snapshot {
+
+        private final long[] mostBits;
+        private final long[] leastBits;
+        private final int[] xp;
+        private final String[] names;
+        private int size = 0;
+
+        private Snapshot(int capacity) {
+            this.mostBits = new long[capacity];
+            this.leastBits = new long[capacity];
+            this.xp = new int[capacity];
+            this.names = new String[capacity];
+        }
+
+        private void add(UUID playerId, int playerXP, String name) {
+            mostBits[size] = playerId.getMostSignificantBits();
+            leastBits[size] = playerId.getLeastSignificantBits();
+            xp[size] = playerXP;
+            names[size] = name;
+            size++;
+        }
+    }
+}
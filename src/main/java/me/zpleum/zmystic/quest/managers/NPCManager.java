@@ -2,15 +2,18 @@ package me.zpleum.zmystic.quest.managers;
 
 import me.zpleum.zmystic.quest.MysticQuest;
 import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.models.ActionBarFrames;
+import me.zpleum.zmystic.quest.models.EncounterState;
+import me.zpleum.zmystic.quest.models.NPCTypeTable;
 import me.zpleum.zmystic.quest.models.QuestNPC;
 import me.zpleum.zmystic.quest.utils.MessageUtils;
 import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
@@ -21,20 +24,56 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Spawns quest NPCs for players and runs their encounters. All encounters are stepped by one
+ * task each tick as state machines, see {@link EncounterState}, within a time budget.
+ */
 public class NPCManager {
 
+    private static final int APPROACH_STEPS = 30;
+    private static final int CHOICE_DELAY_STEPS = 100;
+    private static final int STORY_END_DELAY = 40; // ticks after the accepted story finished typing
+    private static final int REJECT_STEPS = 10;
+    private static final int ACTION_BAR_REFRESH = 40; // ticks before an unchanged frame is sent again, before it fades
+
     private final MysticQuest plugin;
     private final Map<UUID, QuestNPC> activeNPCs;
+    private final Map<UUID, List<QuestNPC>> npcsByTarget; // Player UUID -> NPCs spawned for them
     private final Map<UUID, UUID> playerPendingResponses; // Player UUID -> NPC UUID
-    private final Map<UUID, BukkitTask> storyAnimationTasks; // Player UUID -> Task
-    private BukkitTask spawnTask;
-    private BukkitTask approachTask;
+    private final Deque<QuestNPC> encounters = new ArrayDeque<>(); // Stepped in turn, front first
+    private BukkitTask tickTask;
+    private NPCTypeTable typeTable;
+    private FileConfiguration compiledNpcsConfig;
+    private ActionBarFrames actionBarFrames;
+    private FileConfiguration framesNpcsConfig;
+    private FileConfiguration framesMessagesConfig;
+
+    // Spawn checks ordered by the tick they are due, at most one live check per player
+    private final PriorityQueue<SpawnCheck> spawnQueue = new PriorityQueue<>(Comparator.comparingLong(check -> check.dueTick));
+    private final Map<UUID, SpawnCheck> spawnChecks = new HashMap<>();
+    private final Map<UUID, Long> spawnCooldowns = new HashMap<>(); // Player UUID -> tick the cooldown ends
+    private final Set<UUID> spawnSearches = new HashSet<>(); // Players a spawn location is being searched for
+    private final SpawnSiteFinder spawnSiteFinder;
+    private final NPCPool npcPool;
+    private long currentTick = 0;
+
+    // Metrics
+    private long spawnAttempts = 0;
+    private long spawns = 0;
+    private long encounterTicks = 0;
+    private long encounterNanos = 0;
+    private long maxEncounterNanos = 0;
+    private long overBudgetTicks = 0;
 
     // Config values
     private int spawnInterval;
+    private int spawnChance;
+    private int spawnCooldown;
+    private int spawnChecksPerTick;
     private int despawnTime;
     private int maxDistance;
     private int approachDistance;
+    private long encounterBudgetNanos;
     private boolean notificationsEnabled;
     private String notificationSound;
     private boolean particlesEnabled;
@@ -42,17 +81,23 @@ public class NPCManager {
     public NPCManager(MysticQuest plugin) {
         this.plugin = plugin;
         this.activeNPCs = new HashMap<>();
+        this.npcsByTarget = new HashMap<>();
+        this.spawnSiteFinder = new SpawnSiteFinder(plugin);
+        this.npcPool = new NPCPool(plugin);
         this.playerPendingResponses = new ConcurrentHashMap<>();
-        this.storyAnimationTasks = new HashMap<>();
         loadConfig();
     }
 
     private void loadConfig() {
         FileConfiguration config = plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG);
-        spawnInterval = config.getInt("npc.spawn-interval", 300);
+        spawnInterval = Math.max(1, config.getInt("npc.spawn-interval", 300));
+        spawnChance = config.getInt("npc.spawn-chance", 30);
+        spawnCooldown = Math.max(0, config.getInt("npc.spawn-cooldown", 0));
+        spawnChecksPerTick = Math.max(1, config.getInt("npc.spawn-checks-per-tick", 2));
         despawnTime = config.getInt("npc.despawn-time", 60);
         maxDistance = config.getInt("npc.max-distance", 30);
         approachDistance = config.getInt("npc.approach-distance", 5);
+        encounterBudgetNanos = Math.max(1, config.getInt("npc.encounter-budget", 2)) * 1_000_000L;
         notificationsEnabled = config.getBoolean("npc.notification.enabled", true);
         notificationSound = config.getString("npc.notification.sound", "ENTITY_VILLAGER_AMBIENT");
         particlesEnabled = config.getBoolean("npc.notification.particles", true);
@@ -62,22 +107,20 @@ public class NPCManager {
         // Cancel existing tasks if they're running
         stopSpawningTask();
 
-        // Start new spawn task
-        spawnTask = Bukkit.getScheduler().runTaskTimer(plugin, this::attemptSpawnNPCs, 20L, spawnInterval * 20L);
+        // Get NPCs ready before the first encounters
+        npcPool.start();
 
-        // Start approach task
-        approachTask = Bukkit.getScheduler().runTaskTimer(plugin, this::updateNPCs, 10L, 10L);
+        // Start new spawn task, each player's first check lands at a random point of the interval
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            schedulePlayer(player.getUniqueId());
+        }
+        tickTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
     }
 
     public void stopSpawningTask() {
-        if (spawnTask != null) {
-            spawnTask.cancel();
-            spawnTask = null;
-        }
-
-        if (approachTask != null) {
-            approachTask.cancel();
-            approachTask = null;
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
         }
 
         // Despawn all active NPCs and unlock any players
@@ -90,44 +133,119 @@ public class NPCManager {
             npc.despawn();
         }
         activeNPCs.clear();
+        npcsByTarget.clear();
+        encounters.clear();
 
-        // Cancel any story animation tasks
-        for (BukkitTask task : storyAnimationTasks.values()) {
-            if (task != null) {
-                task.cancel();
-            }
-        }
-        storyAnimationTasks.clear();
+        spawnQueue.clear();
+        spawnChecks.clear();
+        spawnCooldowns.clear();
+        spawnSearches.clear();
         playerPendingResponses.clear();
+
+        // Despawned NPCs went back to the pool, destroy them too
+        npcPool.shutdown();
     }
 
-    private void attemptSpawnNPCs() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            // Check if player already has an NPC
-            if (hasActiveNPCForPlayer(player)) {
+    /**
+     * Starts random spawn checks for a player, the first one at a random point of the spawn interval
+     */
+    public void schedulePlayer(UUID playerId) {
+        long intervalTicks = spawnInterval * 20L;
+        scheduleSpawnCheck(playerId, currentTick + 1 + ThreadLocalRandom.current().nextLong(intervalTicks));
+    }
+
+    /**
+     * Stops spawn checks for a player who left
+     */
+    public void unschedulePlayer(UUID playerId) {
+        // The queued check is skipped once it comes up
+        spawnChecks.remove(playerId);
+        spawnCooldowns.remove(playerId);
+    }
+
+    private void scheduleSpawnCheck(UUID playerId, long dueTick) {
+        SpawnCheck check = new SpawnCheck(playerId, dueTick);
+        spawnChecks.put(playerId, check);
+        spawnQueue.add(check);
+    }
+
+    private void tick() {
+        currentTick++;
+        runSpawnChecks();
+        tickEncounters();
+    }
+
+    private void runSpawnChecks() {
+        // Only a few checks per tick, so players due at the same time are spread over the next ticks
+        int checked = 0;
+        while (checked < spawnChecksPerTick && !spawnQueue.isEmpty() && spawnQueue.peek().dueTick <= currentTick) {
+            SpawnCheck check = spawnQueue.poll();
+            if (spawnChecks.get(check.playerId) != check) continue;
+
+            Player player = Bukkit.getPlayer(check.playerId);
+            if (player == null) {
+                spawnChecks.remove(check.playerId);
                 continue;
             }
 
-            // Random chance to spawn
-            if (ThreadLocalRandom.current().nextInt(100) < 30) { // 30% chance
-                spawnNPCForPlayer(player);
-            }
+            checked++;
+            attemptSpawnNPC(player);
+            scheduleSpawnCheck(check.playerId, currentTick + spawnInterval * 20L);
+        }
+    }
+
+    private void attemptSpawnNPC(Player player) {
+        // Check if player already has an NPC
+        if (hasActiveNPCForPlayer(player)) return;
+
+        // Give the player a break after their last NPC left
+        Long cooldownEnd = spawnCooldowns.get(player.getUniqueId());
+        if (cooldownEnd != null) {
+            if (cooldownEnd > currentTick) return;
+            spawnCooldowns.remove(player.getUniqueId());
+        }
+
+        // Random chance to spawn
+        spawnAttempts++;
+        if (ThreadLocalRandom.current().nextInt(100) < spawnChance) {
+            spawnNPCForPlayer(player);
         }
     }
 
     private boolean hasActiveNPCForPlayer(Player player) {
-        for (QuestNPC npc : activeNPCs.values()) {
-            if (npc.getTargetPlayer().equals(player.getUniqueId())) {
-                return true;
-            }
+        // A spawn location search in progress will become an NPC
+        return npcsByTarget.containsKey(player.getUniqueId()) || spawnSearches.contains(player.getUniqueId());
+    }
+
+    private void trackNPC(QuestNPC npc) {
+        activeNPCs.put(npc.getUuid(), npc);
+        npcsByTarget.computeIfAbsent(npc.getTargetPlayer(), k -> new ArrayList<>(1)).add(npc);
+    }
+
+    private QuestNPC untrackNPC(UUID npcUuid) {
+        QuestNPC npc = activeNPCs.remove(npcUuid);
+        if (npc != null) {
+            unindexNPC(npc);
+        }
+        return npc;
+    }
+
+    // Removes an NPC already taken out of activeNPCs from the target index
+    private void unindexNPC(QuestNPC npc) {
+        UUID playerId = npc.getTargetPlayer();
+        List<QuestNPC> npcs = npcsByTarget.get(playerId);
+        if (npcs == null || !npcs.remove(npc) || !npcs.isEmpty()) return;
+
+        npcsByTarget.remove(playerId);
+        if (spawnCooldown > 0 && spawnChecks.containsKey(playerId)) {
+            spawnCooldowns.put(playerId, currentTick + spawnCooldown * 20L);
         }
-        return false;
     }
 
     // Make this method public for admin commands
     public void spawnNPCForPlayer(Player player) {
-        // Get random NPC type from config
-        String npcType = getRandomNPCType();
+        // Get random NPC type by weight among the types this player can meet
+        String npcType = getTypeTable().pickType(player);
         if (npcType == null) return;
 
         spawnNPCForPlayer(player, npcType);
@@ -142,28 +260,42 @@ public class NPCManager {
             return;
         }
 
-        // Find spawn location exactly 10 blocks away from player
-        Location spawnLoc = findSpawnLocation(player.getLocation(), 10);
-        if (spawnLoc == null) {
-            if (plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG).getBoolean("debug", false)) {
-                plugin.getLogger().warning("Could not find a suitable spawn location for NPC near " + player.getName());
+        // Find spawn location exactly 10 blocks away from player, searched off the main thread
+        UUID playerId = player.getUniqueId();
+        spawnSearches.add(playerId);
+        spawnSiteFinder.find(player.getLocation(), 10).whenComplete((spawnLoc, error) -> {
+            spawnSearches.remove(playerId);
+            if (error != null) {
+                plugin.getLogger().warning("Spawn location search for " + player.getName() + " failed: " + error.getMessage());
+                error.printStackTrace();
+                return;
             }
-            return;
-        }
+            if (!player.isOnline()) return;
 
+            if (spawnLoc == null) {
+                if (plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG).getBoolean("debug", false)) {
+                    plugin.getLogger().warning("Could not find a suitable spawn location for NPC near " + player.getName());
+                }
+                return;
+            }
+
+            spawnNPCAt(player, npcType, spawnLoc);
+        });
+    }
+
+    private void spawnNPCAt(Player player, String npcType, Location spawnLoc) {
         // Create and spawn NPC
         QuestNPC npc = new QuestNPC(plugin, npcType, player.getUniqueId(), spawnLoc);
         boolean spawned = npc.spawn();
 
         if (spawned) {
-            activeNPCs.put(npc.getUuid(), npc);
+            trackNPC(npc);
+            spawns++;
 
-            // Schedule despawn with rejection animation
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (activeNPCs.containsKey(npc.getUuid())) {
-                    handleTimeoutDespawn(player, npc);
-                }
-            }, despawnTime * 20L);
+            // Start approaching right away, leaving with the rejection animation if it takes too long
+            npc.setDespawnTick(currentTick + despawnTime * 20L);
+            npc.setNextStepTick(currentTick);
+            encounters.add(npc);
 
             if (plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG).getBoolean("debug", false)) {
                 plugin.getLogger().info("Spawned NPC " + npc.getName() + " for player " + player.getName());
@@ -171,267 +303,254 @@ public class NPCManager {
         }
     }
 
-    private String getRandomNPCType() {
+    /**
+     * Returns the compiled NPC types, recompiling them if npcs.yml was reloaded
+     */
+    public NPCTypeTable getTypeTable() {
         FileConfiguration npcsConfig = plugin.getConfigManager().getConfig(ConfigManager.NPCS_CONFIG);
-        ConfigurationSection section = npcsConfig.getConfigurationSection("");
-        if (section == null) return null;
-
-        Set<String> npcTypes = section.getKeys(false);
-        if (npcTypes.isEmpty()) return null;
-
-        List<String> npcList = new ArrayList<>(npcTypes);
-        int randomIndex = ThreadLocalRandom.current().nextInt(npcList.size());
-        return npcList.get(randomIndex);
+        if (npcsConfig != compiledNpcsConfig) {
+            typeTable = NPCTypeTable.compile(npcsConfig, plugin.getLogger());
+            compiledNpcsConfig = npcsConfig;
+        }
+        return typeTable;
     }
 
     /**
-     * Finds a spawn location exactly at the specified distance from the center
-     * @param center The player's location
-     * @param distance The exact distance to spawn the NPC
-     * @return A suitable spawn location or null if none found
+     * Returns the prebuilt action bar frames, rebuilding them if npcs.yml or messages.yml was reloaded
      */
-    private Location findSpawnLocation(Location center, int distance) {
-        int attempts = 0;
-        while (attempts < 20) { // try more times to find a good spot
-            // Generate a random angle
-            double angle = ThreadLocalRandom.current().nextDouble(Math.PI * 2);
-
-            // Calculate position exactly at the specified distance
-            int x = (int) (center.getX() + distance * Math.cos(angle));
-            int z = (int) (center.getZ() + distance * Math.sin(angle));
-
-            // Find safe Y
-            Location loc = new Location(center.getWorld(), x, center.getY(), z);
-            int y = center.getWorld().getHighestBlockYAt(x, z);
-            loc.setY(y + 1);
-
-            // Check if location is safe for spawn (air blocks and not in water/lava)
-            if (loc.getBlock().getType().isAir() &&
-                    loc.clone().add(0, 1, 0).getBlock().getType().isAir() &&
-                    !loc.getBlock().isLiquid()) {
-
-                // Set the yaw to face the player
-                org.bukkit.util.Vector direction = center.toVector()
-                        .subtract(loc.toVector())
-                        .normalize();
-                double yaw = Math.atan2(-direction.getX(), direction.getZ()) * (180 / Math.PI);
-                loc.setYaw((float) yaw);
-
-                return loc;
-            }
-
-            attempts++;
+    private ActionBarFrames getActionBarFrames() {
+        FileConfiguration npcsConfig = plugin.getConfigManager().getConfig(ConfigManager.NPCS_CONFIG);
+        FileConfiguration messagesConfig = plugin.getConfigManager().getConfig(ConfigManager.MESSAGES_CONFIG);
+        if (npcsConfig != framesNpcsConfig || messagesConfig != framesMessagesConfig) {
+            actionBarFrames = ActionBarFrames.compile(npcsConfig, messagesConfig);
+            framesNpcsConfig = npcsConfig;
+            framesMessagesConfig = messagesConfig;
         }
+        return actionBarFrames;
+    }
+
+    /**
+     * Shows a frame in the player's action bar, only sending it again when unchanged if it is about to fade
+     */
+    private void showFrame(QuestNPC npc, Player player, BaseComponent[] frame) {
+        if (frame == npc.getShownFrame() && currentTick - npc.getShownTick() < ACTION_BAR_REFRESH) return;
 
-        return null;
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, frame);
+        npc.setShownFrame(frame, currentTick);
     }
 
-    private void updateNPCs() {
-        Iterator<Map.Entry<UUID, QuestNPC>> iterator = activeNPCs.entrySet().iterator();
+    /**
+     * Steps every encounter that is due this tick, in one pass over all NPCs. Encounters are
+     * kept in a rotating queue: when the time budget runs out, the ones not reached yet are at
+     * the front and go first next tick. At least one encounter is stepped per tick.
+     */
+    private void tickEncounters() {
+        long start = System.nanoTime();
 
-        while (iterator.hasNext()) {
-            Map.Entry<UUID, QuestNPC> entry = iterator.next();
-            QuestNPC npc = entry.getValue();
+        int remaining = encounters.size();
+        while (remaining-- > 0) {
+            QuestNPC npc = encounters.poll();
 
-            // Check if target player is still online
-            Player targetPlayer = Bukkit.getPlayer(npc.getTargetPlayer());
-            if (targetPlayer == null || !targetPlayer.isOnline()) {
-                // Make sure to unlock player view if they disconnected
-                if (targetPlayer != null) {
-                    npc.unlockPlayerView(targetPlayer);
+            // Removed from outside the engine, e.g. by an admin command
+            if (activeNPCs.get(npc.getUuid()) != npc) continue;
+
+            if (npc.getNextStepTick() <= currentTick) {
+                if (!stepEncounter(npc)) continue;
+
+                // States that did not pick their own delay step again after their usual one
+                if (npc.getNextStepTick() <= currentTick) {
+                    npc.setNextStepTick(currentTick + npc.getState().getStepTicks());
                 }
-                npc.despawn();
-                iterator.remove();
-                continue;
             }
+            encounters.add(npc);
 
-            // Check distance between NPC and player
-            double distance = npc.getLocation().distance(targetPlayer.getLocation());
-
-            if (distance > maxDistance) {
-                // Player moved too far away, use the timeout animation
-                handleTimeoutDespawn(targetPlayer, npc);
-                // Note: The animation will remove the NPC from activeNPCs
-                // so we need to remove it from the iterator
-                iterator.remove();
-            } else if (!npc.isInteracting()) {
-                // Start approaching player if not already doing so
-                npc.setInteracting(true);
-                approachPlayer(npc, targetPlayer);
+            if (remaining > 0 && System.nanoTime() - start >= encounterBudgetNanos) {
+                overBudgetTicks++;
+                break;
             }
+        }
 
-            // Lock player view if NPC is waiting for response
-            if (npc.isWaitingForResponse() && distance <= 5) {
-                npc.lockPlayerView(targetPlayer);
-            } else if (!npc.isWaitingForResponse() && !npc.isOfferingQuest()) {
-                // Restore player movement if no longer in conversation
-                npc.unlockPlayerView(targetPlayer);
-            }
+        long elapsed = System.nanoTime() - start;
+        encounterTicks++;
+        encounterNanos += elapsed;
+        maxEncounterNanos = Math.max(maxEncounterNanos, elapsed);
+    }
 
-            // Notification when NPC is getting closer
-            if (notificationsEnabled && distance < maxDistance / 2 && !npc.hasNotifiedPlayer()) {
-                notifyPlayer(targetPlayer);
-                npc.setHasNotifiedPlayer(true);
-            }
+    /**
+     * Runs one step of an encounter
+     * @return false if the encounter ended and the NPC is gone
+     */
+    private boolean stepEncounter(QuestNPC npc) {
+        if (npc.getState() == EncounterState.DESPAWN) {
+            // Apply despawn effects and make NPC vanish
+            createDespawnEffects(npc.getLocation());
+            removeNPC(npc.getUuid());
+            return false;
+        }
+
+        // Check if target player is still online
+        Player player = Bukkit.getPlayer(npc.getTargetPlayer());
+        if (player == null || !player.isOnline()) {
+            playerPendingResponses.remove(npc.getTargetPlayer(), npc.getUuid());
+            removeNPC(npc.getUuid());
+            return false;
+        }
+
+        switch (npc.getState()) {
+            case APPROACH:
+                stepApproach(npc, player);
+                return true;
+            case OFFER:
+                stepOffer(npc, player);
+                return true;
+            case STORY:
+                stepStory(npc, player);
+                return true;
+            case REJECT:
+                return stepReject(npc, player);
+            default:
+                return true;
         }
     }
 
-    private void approachPlayer(QuestNPC npc, Player player) {
-        // Make NPC face player
-        npc.lookAt(player.getLocation());
+    private void enterState(QuestNPC npc, EncounterState state) {
+        npc.setState(state);
+        npc.setNextStepTick(currentTick + state.getStepTicks());
+    }
 
-        // Start a task to make NPC gradually approach the player more naturally
-        final int[] stepCount = {0};
-        final int[] taskId = {0};
+    private void stepApproach(QuestNPC npc, Player player) {
+        // Check distance between NPC and player
+        double distance = distanceBetween(npc.getLocation(), player.getLocation());
 
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            // Check if NPC still exists and player is still online
-            if (!activeNPCs.containsKey(npc.getUuid()) || !player.isOnline()) {
-                Bukkit.getScheduler().cancelTask(taskId[0]);
-                return;
-            }
+        if (hasTimedOut(npc, distance)) {
+            // Player moved too far away or never came, use the timeout animation
+            handleTimeoutDespawn(player, npc);
+            return;
+        }
 
-            // Always make NPC face the player
-            npc.lookAt(player.getLocation());
+        // Notification when NPC is getting closer
+        if (notificationsEnabled && distance < maxDistance / 2 && !npc.hasNotifiedPlayer()) {
+            notifyPlayer(player);
+            npc.setHasNotifiedPlayer(true);
+        }
 
-            // Calculate distance
-            double distance = npc.getLocation().distance(player.getLocation());
+        // Always make NPC face the player
+        npc.lookAt(player.getLocation());
 
-            // If we're close enough, stop approaching
-            if (distance <= 2 || stepCount[0] >= 30) {
-                Bukkit.getScheduler().cancelTask(taskId[0]);
+        // After the last step the NPC only waits around until it times out
+        int step = npc.getStep();
+        if (step >= APPROACH_STEPS) return;
 
-                // If close enough, offer the quest
-                if (distance <= 2 && !npc.isOfferingQuest() && !npc.isWaitingForResponse()) {
-                    npc.setWaitingForResponse(true);
-                    offerQuestChoice(npc, player);
-                }
-                return;
-            }
+        // If close enough, offer the quest
+        if (distance <= 2) {
+            offerQuestChoice(npc, player);
+            return;
+        }
 
-            // Make NPC walk toward player with slight randomization for more natural movement
-            Location targetLoc = player.getLocation().clone();
+        // Make NPC walk toward player with slight randomization for more natural movement
+        Location targetLoc = player.getLocation().clone();
 
-            // Add a very slight random movement to make it look more natural
-            if (stepCount[0] % 3 == 0) {
-                double offsetX = (Math.random() - 0.5) * 0.5;
-                double offsetZ = (Math.random() - 0.5) * 0.5;
-                targetLoc.add(offsetX, 0, offsetZ);
-            }
+        // Add a very slight random movement to make it look more natural
+        if (step % 3 == 0) {
+            double offsetX = (Math.random() - 0.5) * 0.5;
+            double offsetZ = (Math.random() - 0.5) * 0.5;
+            targetLoc.add(offsetX, 0, offsetZ);
+        }
 
-            // Move the NPC
-            npc.walkTo(targetLoc);
-
-            // Add mystical particles
-            Location particleLoc = npc.getLocation().add(0, 1, 0);
-
-            // Different particle effects based on NPC type or step count
-            if (stepCount[0] % 5 == 0) {
-                // Main particle trail
-                particleLoc.getWorld().spawnParticle(
-                        Particle.END_ROD,
-                        particleLoc,
-                        5, 0.2, 0.5, 0.2, 0.01
-                );
-
-                // Shadow effect
-                particleLoc.getWorld().spawnParticle(
-                        Particle.SMOKE,
-                        particleLoc.clone().add(0, -0.5, 0),
-                        3, 0.3, 0.1, 0.3, 0.01
-                );
-            }
+        // Move the NPC
+        npc.walkTo(targetLoc);
+
+        // Add mystical particles
+        Location particleLoc = npc.getLocation().add(0, 1, 0);
+
+        // Different particle effects based on NPC type or step count
+        if (step % 5 == 0) {
+            // Main particle trail
+            particleLoc.getWorld().spawnParticle(
+                    Particle.END_ROD,
+                    particleLoc,
+                    5, 0.2, 0.5, 0.2, 0.01
+            );
+
+            // Shadow effect
+            particleLoc.getWorld().spawnParticle(
+                    Particle.SMOKE,
+                    particleLoc.clone().add(0, -0.5, 0),
+                    3, 0.3, 0.1, 0.3, 0.01
+            );
+        }
 
-            // Sporadic mystical particles
-            if (stepCount[0] % 8 == 0) {
-                particleLoc.getWorld().spawnParticle(
-                        Particle.DRAGON_BREATH,
-                        particleLoc,
-                        2, 0.2, 0.2, 0.2, 0.01
-                );
-
-                // Play subtle sound effect occasionally
-                if (stepCount[0] % 16 == 0) {
-                    player.playSound(particleLoc, Sound.BLOCK_BEACON_AMBIENT, 0.5f, 1.5f);
-                }
+        // Sporadic mystical particles
+        if (step % 8 == 0) {
+            particleLoc.getWorld().spawnParticle(
+                    Particle.DRAGON_BREATH,
+                    particleLoc,
+                    2, 0.2, 0.2, 0.2, 0.01
+            );
+
+            // Play subtle sound effect occasionally
+            if (step % 16 == 0) {
+                player.playSound(particleLoc, Sound.BLOCK_BEACON_AMBIENT, 0.5f, 1.5f);
             }
+        }
 
-            stepCount[0]++;
-        }, 10L, 10L); // Run every 10 ticks (0.5 seconds)
-
-        taskId[0] = task.getTaskId();
+        npc.setStep(step + 1);
     }
 
-    private void offerQuestChoice(QuestNPC npc, Player player) {
+    /**
+     * Makes an approaching NPC start offering its quest
+     */
+    public void offerQuestChoice(QuestNPC npc, Player player) {
+        if (npc.getState() != EncounterState.APPROACH) return;
+
         // Store pending response
         playerPendingResponses.put(player.getUniqueId(), npc.getUuid());
+        enterState(npc, EncounterState.OFFER);
+
+        // Play sound
+        player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_TRADE, 1.0f, 0.8f);
+    }
+
+    private void stepOffer(QuestNPC npc, Player player) {
+        // An offer the player walks away from or never answers ends like any other timeout
+        double distance = distanceBetween(npc.getLocation(), player.getLocation());
+        if (hasTimedOut(npc, distance)) {
+            handleTimeoutDespawn(player, npc);
+            return;
+        }
 
         // Get quest story
-        String story = npc.getQuestStory();
-        final int[] charIndex = {0};
-        final int[] taskId = {0};
-        final boolean[] showingChoices = {false};
-        final int[] choiceDelay = {0};
-
-        // Create a typing animation for the story first
-        BukkitTask animationTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            // If player no longer has a pending response, cancel the task
-            if (!playerPendingResponses.containsKey(player.getUniqueId())) {
-                Bukkit.getScheduler().cancelTask(taskId[0]);
-                return;
+        ActionBarFrames.Frames frames = getActionBarFrames().get(npc);
+        BaseComponent[][] story = frames.getStory();
+        int last = story.length - 1;
+        int step = npc.getStep();
+
+        if (step <= last) {
+            // Still showing the question with typing animation
+            showFrame(npc, player, story[step]);
+
+            // Play typing sound every few characters
+            if ((step + 1) % 3 == 0) {
+                player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_HAT, 0.2f, 1.5f);
             }
+        } else if (step <= last + CHOICE_DELAY_STEPS) {
+            // Keep showing full text during waiting period
+            showFrame(npc, player, story[last]);
 
-            if (!showingChoices[0]) {
-                // Still showing the question with typing animation
-                if (charIndex[0] <= story.length()) {
-                    // Show current portion of text
-                    String displayText = story.substring(0, charIndex[0]);
-                    player.spigot().sendMessage(ChatMessageType.ACTION_BAR,
-                            TextComponent.fromLegacyText("§6" + npc.getName() + ": §f" + displayText));
-                    charIndex[0]++;
-
-                    // Play typing sound every few characters
-                    if (charIndex[0] % 3 == 0) {
-                        player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_HAT, 0.2f, 1.5f);
-                    }
-                } else {
-                    // Question animation completed, increment delay counter
-                    choiceDelay[0]++;
-
-                    // Keep showing full text during waiting period
-                    player.spigot().sendMessage(ChatMessageType.ACTION_BAR,
-                            TextComponent.fromLegacyText("§6" + npc.getName() + ": §f" + story));
-
-                    // After 5 seconds (100 ticks), switch to showing choices
-                    if (choiceDelay[0] >= 100) {
-                        showingChoices[0] = true;
-                        player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.5f, 1.2f);
-                    }
-                }
-            } else {
-                // For choices, check if story is too long
-                String message;
-
-                // Limit message length to avoid ActionBar cutoff (typically around 60-80 chars)
-                if (story.length() > 40) {
-                    // Truncate the story if needed
-                    String truncatedStory = story.substring(0, Math.min(40, story.length())) + "...";
-                    message = "§6" + npc.getName() + ": §f" + truncatedStory + " §a/accept §7or §c/reject";
-                } else {
-                    // Keep full story if short enough
-                    message = "§6" + npc.getName() + ": §f" + story + " §a/accept §7or §c/reject";
-                }
-
-                player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(message));
+            // After the waiting period, switch to showing choices
+            if (step == last + CHOICE_DELAY_STEPS) {
+                player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.5f, 1.2f);
             }
-        }, 0L, 2L); // Every 2 ticks for smoother typing animation
+        } else {
+            showFrame(npc, player, frames.getPrompt());
+        }
 
-        // Store task ID in NPC to cancel later if needed
-        taskId[0] = animationTask.getTaskId();
-        npc.setActionBarTaskId(animationTask.getTaskId());
+        // Keep the player facing the NPC while it talks
+        if (step % 5 == 0 && distance <= 5) {
+            npc.lockPlayerView(player);
+        }
 
-        // Play sound
-        player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_TRADE, 1.0f, 0.8f);
+        npc.setStep(step + 1);
     }
 
     public void handleQuestAccept(Player player) {
@@ -448,17 +567,11 @@ public class NPCManager {
         // Remove pending response
         playerPendingResponses.remove(player.getUniqueId());
 
-        // Cancel action bar task if it exists
-        if (npc.getActionBarTaskId() > 0) {
-            Bukkit.getScheduler().cancelTask(npc.getActionBarTaskId());
-            npc.setActionBarTaskId(-1);
-        }
-
-        // Set offering quest
-        npc.setOfferingQuest(true);
+        // Notify player with a sound
+        player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.7f, 1.2f);
 
         // Start story animation (keep player frozen during story)
-        animateQuestStory(player, npc);
+        enterState(npc, EncounterState.STORY);
     }
 
     public void handleQuestReject(Player player) {
@@ -475,12 +588,6 @@ public class NPCManager {
         // Remove pending response
         playerPendingResponses.remove(player.getUniqueId());
 
-        // Cancel action bar task if it exists
-        if (npc.getActionBarTaskId() > 0) {
-            Bukkit.getScheduler().cancelTask(npc.getActionBarTaskId());
-            npc.setActionBarTaskId(-1);
-        }
-
         // Get rejection message
         String rejectionMessage = plugin.getConfigManager().getConfig(ConfigManager.MESSAGES_CONFIG)
                 .getString("npc.quest-declined", "*The figure looks disappointed and walks away*");
@@ -495,138 +602,87 @@ public class NPCManager {
         // Play sound effect
         player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 0.7f, 0.8f);
 
-        // Reset NPC state
-        npc.setWaitingForResponse(false);
-        npc.setOfferingQuest(false);
-
         // Unlock player view (fully restore movement)
         npc.unlockPlayerView(player);
 
         // Make NPC walk backwards
-        animateNPCRejection(player, npc);
+        enterState(npc, EncounterState.REJECT);
     }
 
-    private void animateQuestStory(Player player, QuestNPC npc) {
-        // Reset any pending animations for this player
-        if (storyAnimationTasks.containsKey(player.getUniqueId())) {
-            storyAnimationTasks.get(player.getUniqueId()).cancel();
-            storyAnimationTasks.remove(player.getUniqueId());
+    private void stepStory(QuestNPC npc, Player player) {
+        // An accepted quest is always handed over, the story is never cut short by a timeout
+        // For story animation after accepting, we'll use a different text
+        BaseComponent[][] acceptStory = getActionBarFrames().get(npc).getAcceptStory();
+        int last = acceptStory.length - 1;
+        int step = npc.getStep();
+
+        if (step > last) {
+            // Story finished and shown for a while, give the quest
+            giveQuest(npc, player);
+            return;
         }
 
-        // For story animation after accepting, we'll use a different text
-        FileConfiguration messagesConfig = plugin.getConfigManager().getConfig(ConfigManager.MESSAGES_CONFIG);
-        String acceptStory = messagesConfig.getString("npc.quest-accepted-story",
-                "Thank you for accepting. Your quest awaits...");
+        showFrame(npc, player, acceptStory[step]);
 
-        final int[] charIndex = {0};
-        final int[] taskId = {0};
+        // Play typing sound every few characters
+        if ((step + 1) % 3 == 0) {
+            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_HAT, 0.2f, 1.5f);
+        }
 
-        // Notify player with a sound
-        player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.7f, 1.2f);
+        // Keep player locked
+        npc.lockPlayerView(player);
 
-        // Start new animation task
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            // Check if player is still online
-            if (!player.isOnline()) {
-                Bukkit.getScheduler().cancelTask(taskId[0]);
-                storyAnimationTasks.remove(player.getUniqueId());
-                return;
-            }
+        // Wait a bit after the last character before giving the quest
+        if (step == last) {
+            npc.setNextStepTick(currentTick + STORY_END_DELAY);
+        }
+        npc.setStep(step + 1);
+    }
 
-            if (charIndex[0] <= acceptStory.length()) {
-                String displayText = acceptStory.substring(0, charIndex[0]);
-                player.spigot().sendMessage(ChatMessageType.ACTION_BAR,
-                        TextComponent.fromLegacyText("§6" + npc.getName() + ": §f" + displayText));
-                charIndex[0]++;
+    private boolean stepReject(QuestNPC npc, Player player) {
+        int step = npc.getStep();
 
-                // Play typing sound every few characters
-                if (charIndex[0] % 3 == 0) {
-                    player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_HAT, 0.2f, 1.5f);
-                }
+        if (step >= REJECT_STEPS) {
+            // Create final disappearance effect
+            createDespawnEffects(npc.getLocation());
 
-                // Keep player locked
-                npc.lockPlayerView(player);
-            } else {
-                // Story finished, wait a bit then give quest
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    // Final check to ensure player is online
-                    if (player.isOnline()) {
-                        giveQuest(npc, player);
-                        // Unlock player view after giving quest
-                        npc.unlockPlayerView(player);
-                    } else {
-                        // If player went offline, make sure to clean up
-                        if (activeNPCs.containsKey(npc.getUuid())) {
-                            activeNPCs.remove(npc.getUuid());
-                            npc.despawn();
-                        }
-                    }
-                }, 40L); // Wait 2 seconds after story finishes
-
-                // Cancel animation task
-                Bukkit.getScheduler().cancelTask(taskId[0]);
-                storyAnimationTasks.remove(player.getUniqueId());
-            }
-        }, 2L, 2L); // Run every 2 ticks (0.1 seconds)
+            // Final check to ensure player movement is restored
+            npc.unlockPlayerView(player);
 
-        taskId[0] = task.getTaskId();
-        storyAnimationTasks.put(player.getUniqueId(), task);
-    }
+            // Remove NPC
+            removeNPC(npc.getUuid());
+            return false;
+        }
 
-    private void animateNPCRejection(Player player, QuestNPC npc) {
         // Make NPC walk backwards
-        final int[] stepCount = {0};
-        final int[] taskId = {0};
-
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (stepCount[0] < 10) {
-                // Make NPC walk backwards
-                npc.walkBackwards(player);
-
-                // Enhanced darkness effects
-                Location loc = npc.getLocation().add(0, 1, 0);
-
-                // Main smoke effect
-                loc.getWorld().spawnParticle(
-                        Particle.LARGE_SMOKE,
-                        loc,
-                        8, 0.3, 0.5, 0.3, 0.01
-                );
-
-                // Add some soul particles
-                if (stepCount[0] % 2 == 0) {
-                    loc.getWorld().spawnParticle(
-                            Particle.SOUL,
-                            loc.clone().add(0, 0.5, 0),
-                            3, 0.2, 0.2, 0.2, 0.02
-                    );
-                }
+        npc.walkBackwards(player);
 
-                // Play eerie sound
-                if (stepCount[0] == 0 || stepCount[0] == 5) {
-                    player.playSound(loc, Sound.ENTITY_ENDERMAN_AMBIENT, 0.5f, 0.5f);
-                }
-
-                stepCount[0]++;
-            } else {
-                // End of animation
-                Bukkit.getScheduler().cancelTask(taskId[0]);
+        // Enhanced darkness effects
+        Location loc = npc.getLocation().add(0, 1, 0);
 
-                // Create final disappearance effect
-                createDespawnEffects(npc.getLocation());
+        // Main smoke effect
+        loc.getWorld().spawnParticle(
+                Particle.LARGE_SMOKE,
+                loc,
+                8, 0.3, 0.5, 0.3, 0.01
+        );
 
-                // Final check to ensure player movement is restored
-                if (player.isOnline()) {
-                    npc.unlockPlayerView(player);
-                }
+        // Add some soul particles
+        if (step % 2 == 0) {
+            loc.getWorld().spawnParticle(
+                    Particle.SOUL,
+                    loc.clone().add(0, 0.5, 0),
+                    3, 0.2, 0.2, 0.2, 0.02
+            );
+        }
 
-                // Remove NPC
-                activeNPCs.remove(npc.getUuid());
-                npc.despawn();
-            }
-        }, 5L, 5L); // Every 0.25 seconds
+        // Play eerie sound
+        if (step == 0 || step == 5) {
+            player.playSound(loc, Sound.ENTITY_ENDERMAN_AMBIENT, 0.5f, 0.5f);
+        }
 
-        taskId[0] = task.getTaskId();
+        npc.setStep(step + 1);
+        return true;
     }
 
     private void giveQuest(QuestNPC npc, Player player) {
@@ -643,22 +699,23 @@ public class NPCManager {
         // Also send in chat for reference
         MessageUtils.sendMessage(player, "&a" + completionMessage);
 
-        // Make sure to fully unlock player first
-        npc.setWaitingForResponse(false);
-        npc.setOfferingQuest(false);
+        // Make sure to fully unlock player
         npc.unlockPlayerView(player);
 
-        // Schedule NPC to despawn with effects
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            if (activeNPCs.containsKey(npc.getUuid())) {
-                // Apply despawn effects
-                createDespawnEffects(npc.getLocation());
+        // NPC despawns with effects after a short delay
+        enterState(npc, EncounterState.DESPAWN);
+    }
 
-                // Make NPC vanish
-                npc.despawn();
-                activeNPCs.remove(npc.getUuid());
-            }
-        }, 60L); // 3 seconds delay
+    private boolean hasTimedOut(QuestNPC npc, double distance) {
+        return distance > maxDistance || currentTick >= npc.getDespawnTick();
+    }
+
+    // Locations in different worlds are treated as out of reach
+    private static double distanceBetween(Location from, Location to) {
+        if (from.getWorld() == null || !from.getWorld().equals(to.getWorld())) {
+            return Double.MAX_VALUE;
+        }
+        return from.distance(to);
     }
 
     private void notifyPlayer(Player player) {
@@ -679,7 +736,7 @@ public class NPCManager {
     }
 
     public void removeNPC(UUID npcUuid) {
-        QuestNPC npc = activeNPCs.remove(npcUuid);
+        QuestNPC npc = untrackNPC(npcUuid);
         if (npc != null) {
             npc.despawn();
         }
@@ -693,10 +750,60 @@ public class NPCManager {
         return activeNPCs.values();
     }
 
+    public NPCPool getNPCPool() {
+        return npcPool;
+    }
+
+    public SpawnSiteFinder getSpawnSiteFinder() {
+        return spawnSiteFinder;
+    }
+
+    public int getQueuedSpawnChecks() {
+        return spawnChecks.size();
+    }
+
+    public long getSpawnAttempts() {
+        return spawnAttempts;
+    }
+
+    public long getSpawns() {
+        return spawns;
+    }
+
+    /**
+     * @return Number of encounters in each state
+     */
+    public Map<EncounterState, Integer> getEncounterCounts() {
+        Map<EncounterState, Integer> counts = new EnumMap<>(EncounterState.class);
+        for (EncounterState state : EncounterState.values()) {
+            counts.put(state, 0);
+        }
+        for (QuestNPC npc : activeNPCs.values()) {
+            counts.merge(npc.getState(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public double getAverageEncounterMillis() {
+        return encounterTicks == 0 ? 0 : encounterNanos / 1_000_000.0 / encounterTicks;
+    }
+
+    public double getMaxEncounterMillis() {
+        return maxEncounterNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return Ticks that ran out of time budget before stepping every encounter
+     */
+    public long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
+
     public boolean hasPlayerPendingResponse(UUID playerId) {
         return playerPendingResponses.containsKey(playerId);
     }
 
+
     /**
      * Clears any pending response for a player, used by admin commands
      * @param playerId The player's UUID
@@ -704,41 +811,26 @@ public class NPCManager {
     public void clearPlayerPendingResponses(UUID playerId) {
         UUID npcUuid = playerPendingResponses.remove(playerId);
 
-        // If the player had a pending response, also update the associated NPC
+        // If the player had a pending response, the associated NPC stops talking and waits until it times out
         if (npcUuid != null) {
             QuestNPC npc = activeNPCs.get(npcUuid);
-            if (npc != null) {
-                npc.setWaitingForResponse(false);
-                npc.setOfferingQuest(false);
+            if (npc != null && (npc.getState() == EncounterState.OFFER || npc.getState() == EncounterState.STORY)) {
+                Player player = Bukkit.getPlayer(playerId);
+                if (player != null) {
+                    npc.unlockPlayerView(player);
+                }
+                enterState(npc, EncounterState.APPROACH);
+                npc.setStep(APPROACH_STEPS);
             }
         }
-
-        // Cancel any story animation task
-        BukkitTask task = storyAnimationTasks.remove(playerId);
-        if (task != null) {
-            task.cancel();
-        }
     }
 
     /**
      * Handles an NPC despawning due to timeout with same effects as rejection
      */
     private void handleTimeoutDespawn(Player player, QuestNPC npc) {
-        // If player is already in conversation with the NPC, don't interrupt
-        if (npc.isWaitingForResponse() || npc.isOfferingQuest()) {
-            return;
-        }
-
-        // Same as handleQuestReject but for timeout scenario
-
         // Remove any pending response
-        playerPendingResponses.remove(player.getUniqueId());
-
-        // Cancel action bar task if it exists
-        if (npc.getActionBarTaskId() > 0) {
-            Bukkit.getScheduler().cancelTask(npc.getActionBarTaskId());
-            npc.setActionBarTaskId(-1);
-        }
+        playerPendingResponses.remove(player.getUniqueId(), npc.getUuid());
 
         // Get timeout message (use the same as reject)
         String timeoutMessage = plugin.getConfigManager().getConfig(ConfigManager.MESSAGES_CONFIG)
@@ -754,17 +846,14 @@ public class NPCManager {
         // Play sound effect
         player.playSound(player.getLocation(), Sound.ENTITY_VILLAGER_NO, 0.7f, 0.8f);
 
-        // Reset NPC state
-        npc.setWaitingForResponse(false);
-        npc.setOfferingQuest(false);
-
         // Unlock player view (fully restore movement)
         npc.unlockPlayerView(player);
 
         // Use the same rejection animation
-        animateNPCRejection(player, npc);
+        enterState(npc, EncounterState.REJECT);
     }
 
+
     // Helper method to create despawn effects
     private void createDespawnEffects(Location location) {
         Location loc = location.add(0, 1, 0);
@@ -800,4 +889,15 @@ public class NPCManager {
             }
         }
     }
-} 
\ No newline at end of file
+
+    private static final class SpawnCheck {
+
+        private final UUID playerId;
+        private final long dueTick;
+
+        private SpawnCheck(UUID playerId, long dueTick) {
+            this.playerId = playerId;
+            this.dueTick = dueTick;
+        }
+    }
+}
\ No newline at end of file
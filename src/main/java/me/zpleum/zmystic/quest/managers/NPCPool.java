@@ -0,0 +1,292 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import net.citizensnpcs.api.CitizensAPI;
+import net.citizensnpcs.api.npc.MemoryNPCDataStore;
+import net.citizensnpcs.api.npc.NPC;
+import net.citizensnpcs.api.npc.NPCRegistry;
+import net.citizensnpcs.trait.LookClose;
+import net.citizensnpcs.trait.SkinTrait;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a few configured but unspawned Citizens NPCs of each NPC type ready, so an encounter
+ * only has to spawn one instead of creating it and setting up its skin and traits first.
+ * NPCs are checked out for an encounter and released back when it ends; releases beyond the
+ * pool size are destroyed. Pools are filled up at startup a few NPCs per tick.
+ * <p>
+ * The NPCs live in an anonymous registry kept only in memory, so Citizens never saves them
+ * and none survive a crash. All methods must be called on the main thread.
+ */
+public class NPCPool {
+
+    // Data key marking an NPC as a quest NPC, holding the UUID of the player it was spawned for
+    public static final String QUEST_NPC_KEY = "zmystic-quest-npc";
+
+    // Default skin signature and texture for all black NPC
+    private static final String DEFAULT_SKIN_SIGNATURE = "J4qwQIK5n9V5zNgMBL8vbIgKcm5yTlX1XWlGbokmnhEr3hE7+RKHxUCEYu+7+MeFAE7kuhLUDQjM77CV72S18B8OITbMsWFyfUzYbNZCG95jZBP5vjNE1TRcgGVUOrY+uCeV6DdzYNzSAynXgbHJLfHALNdBjmwWBh6J8jyWDf/p2IP7CsAFZLRdOqfJbv4AUJQsqzuhK15RPx9sBdgNZtZa46XZ5d4TJlEH/cU1LqYlwsUrV4G/+rGmngoHIjUGx8vy9OG+s2lfUpEaEpzgPcJzGYmJ6jLs9PF3fHhO0XTnSh35TtCiZ/MPnKvIIqoLEYSXMw2LxEm1M65fSnkgbS2Q9L1vT5s7YUMFWkBxXpqGqEWEyQTw1y03aLtaI5JAFPX9FGmDAMXnZ0QBMsWJ9oj8LSQ9yv+JDjPUOLDJazPlkwxkoUBCc56TRynKWIJsKGCNY6TVJ5jbPRzljgUaoI5IQ5FnvLcE9BEuWDcHBdkPfKaIyhpGBL6G5kLkDwMycbRHUkpjMGZ8ZGj66TkbBQFwOpuK7xTYGf+RL+fO9iJv6c8DWLI+5SiE9xY4PGGFEJOUy2oSKOJ5L8p+T6uAJYD/pLozsB9gnvyUBOIgK++Vv06L7vx5TQcITfQv5jgkYerP2FQ0TdTmJCdEOcXIuecMSWkSWB5hfVWVVfc=";
+    private static final String DEFAULT_SKIN_TEXTURE = "eyJ0aW1lc3RhbXAiOjE1OTE3ODY4NTU5MTgsInByb2ZpbGVJZCI6IjQxZDNhYmMyZDc0OTQwMGM5MDkwZDU0MzRkMDM4MzFhIiwicHJvZmlsZU5hbWUiOiJNZWdha2xvb24iLCJzaWduYXR1cmVSZXF1aXJlZCI6dHJ1ZSwidGV4dHVyZXMiOnsiU0tJTiI6eyJ1cmwiOiJodHRwOi8vdGV4dHVyZXMubWluZWNyYWZ0Lm5ldC90ZXh0dXJlLzQxMmY4ODU2N2JkZTU5MmUyM2Y2MzZhZjVkMzFjZjVhM2YzODdlNWNkZjQzMGFkMWQxZGM5YjEzZGJmMmU2YjkifX19";
+
+    private final MysticQuest plugin;
+    private final NPCRegistry registry;
+    private final Map<String, Deque<NPC>> idle = new LinkedHashMap<>();
+    private BukkitTask warmUpTask;
+
+    // Skin resolved from the main config it was read from
+    private FileConfiguration skinConfig;
+    private String skinSignature;
+    private String skinTexture;
+
+    // Metrics
+    private long hits = 0;
+    private long misses = 0;
+    private long created = 0;
+    private long destroyed = 0;
+
+    // Config values
+    private boolean enabled;
+    private int size;
+    private int warmUp;
+    private int warmUpPerTick;
+
+    public NPCPool(MysticQuest plugin) {
+        this.plugin = plugin;
+        this.registry = CitizensAPI.createAnonymousNPCRegistry(new MemoryNPCDataStore());
+        loadConfig();
+    }
+
+    private void loadConfig() {
+        FileConfiguration config = plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG);
+        enabled = config.getBoolean("npc.pool.enabled", true);
+        size = Math.max(0, config.getInt("npc.pool.size", 2));
+        warmUp = Math.min(size, Math.max(0, config.getInt("npc.pool.warm-up", 1)));
+        warmUpPerTick = Math.max(1, config.getInt("npc.pool.warm-up-per-tick", 1));
+    }
+
+    /**
+     * Fills every NPC type's pool up to the warm-up size, a few NPCs per tick
+     */
+    public void start() {
+        removeLeftovers();
+
+        if (!enabled || warmUp == 0) return;
+
+        List<String> pending = new ArrayList<>();
+        for (String npcType : plugin.getConfigManager().getConfig(ConfigManager.NPCS_CONFIG).getKeys(false)) {
+            for (int i = 0; i < warmUp; i++) {
+                pending.add(npcType);
+            }
+        }
+
+        final int[] next = {0};
+        warmUpTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            for (int i = 0; i < warmUpPerTick && next[0] < pending.size(); i++) {
+                String npcType = pending.get(next[0]++);
+                Deque<NPC> pool = idle.computeIfAbsent(npcType, k -> new ArrayDeque<>());
+                if (pool.size() < warmUp) {
+                    pool.push(create(npcType));
+                }
+            }
+            if (next[0] >= pending.size()) {
+                warmUpTask.cancel();
+                warmUpTask = null;
+            }
+        }, 1L, 1L);
+    }
+
+    public void shutdown() {
+        if (warmUpTask != null) {
+            warmUpTask.cancel();
+            warmUpTask = null;
+        }
+        clear();
+        registry.deregisterAll();
+    }
+
+    /**
+     * Removes quest NPCs left in Citizens' own saved registry, by older versions that created
+     * them there or by a crash before they were despawned
+     * @return Number of NPCs removed
+     */
+    public int removeLeftovers() {
+        List<NPC> leftovers = new ArrayList<>();
+        for (NPC npc : CitizensAPI.getNPCRegistry()) {
+            if (isLeftover(npc)) {
+                leftovers.add(npc);
+            }
+        }
+
+        for (NPC npc : leftovers) {
+            npc.destroy();
+        }
+        if (!leftovers.isEmpty()) {
+            plugin.getLogger().info("Removed " + leftovers.size() + " leftover quest NPCs from Citizens.");
+        }
+        return leftovers.size();
+    }
+
+    private boolean isLeftover(NPC npc) {
+        if (npc.data().has(QUEST_NPC_KEY)) return true;
+
+        // The quest tag was never saved, saved ones are recognised by their hidden name and skin
+        if (!npc.getName().isEmpty() || !npc.data().has("nameplate-visible") || !npc.hasTrait(SkinTrait.class)) {
+            return false;
+        }
+        return "mystery".equals(npc.getOrAddTrait(SkinTrait.class).getSkinName());
+    }
+
+    /**
+     * Takes a ready NPC of the type out of the pool, or creates one if the pool is empty
+     * @param displayName Name stored on the NPC, the name tag itself stays hidden
+     */
+    public NPC checkout(String npcType, String displayName) {
+        // Pooled NPCs carry the skin they were created with, drop them when it changed
+        FileConfiguration config = plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG);
+        if (config != skinConfig) {
+            clear();
+            resolveSkin(config);
+        }
+
+        Deque<NPC> pool = idle.get(npcType);
+        NPC npc = pool != null ? pool.poll() : null;
+        if (npc != null) {
+            hits++;
+        } else {
+            misses++;
+            npc = create(npcType);
+        }
+
+        npc.data().set("zmystic-quest-npc-name", displayName); // Store the actual name internally
+        return npc;
+    }
+
+    /**
+     * Despawns an NPC after its encounter and keeps it for the next one if there is room
+     */
+    public void release(String npcType, NPC npc) {
+        if (npc.isSpawned()) {
+            npc.getNavigator().cancelNavigation();
+            npc.despawn();
+        }
+        npc.data().remove(QUEST_NPC_KEY);
+
+        Deque<NPC> pool = idle.computeIfAbsent(npcType, k -> new ArrayDeque<>());
+        if (enabled && pool.size() < size && plugin.isEnabled()) {
+            pool.push(npc);
+        } else {
+            npc.destroy();
+            destroyed++;
+        }
+    }
+
+    private NPC create(String npcType) {
+        if (skinConfig == null) {
+            resolveSkin(plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG));
+        }
+
+        // Create NPC with empty display name to avoid showing a name tag
+        NPC npc = registry.createNPC(EntityType.PLAYER, "");
+        created++;
+
+        // Hide name tag explicitly using all available methods
+        npc.setUseMinecraftAI(false);
+        npc.setProtected(true);
+        npc.data().set(NPC.Metadata.NAMEPLATE_VISIBLE, false);
+        npc.data().set("nameplate-visible", false);
+
+        // Apply skin
+        SkinTrait skinTrait = npc.getOrAddTrait(SkinTrait.class);
+        skinTrait.setSkinPersistent("mystery", skinSignature, skinTexture);
+
+        // Make NPC look at players
+        LookClose lookCloseTrait = npc.getOrAddTrait(LookClose.class);
+        lookCloseTrait.lookClose(true);
+        lookCloseTrait.setRange(30); // Look at target from up to 30 blocks away
+        lookCloseTrait.setRealisticLooking(true);
+
+        return npc;
+    }
+
+    private void resolveSkin(FileConfiguration config) {
+        skinConfig = config;
+        skinSignature = config.getString("npc.skin.signature", "");
+        skinTexture = config.getString("npc.skin.texture", "");
+
+        // Validate skin data by checking if they're proper Base64 strings
+        // If not valid or empty, use defaults
+        if (!isValidBase64(skinSignature) || !isValidBase64(skinTexture)) {
+            plugin.getLogger().info("Using default skin as config values are invalid or empty");
+            skinSignature = DEFAULT_SKIN_SIGNATURE;
+            skinTexture = DEFAULT_SKIN_TEXTURE;
+        }
+    }
+
+    /**
+     * Check if a string is valid Base64 encoded data
+     * @param str The string to check
+     * @return true if valid Base64, false otherwise
+     */
+    private boolean isValidBase64(String str) {
+        if (str == null || str.isEmpty()) {
+            return false;
+        }
+
+        // Check if string contains only valid Base64 characters
+        return str.matches("^[A-Za-z0-9+/]*={0,2}$");
+    }
+
+    private void clear() {
+        for (Deque<NPC> pool : idle.values()) {
+            for (NPC npc : pool) {
+                npc.destroy();
+                destroyed++;
+            }
+            pool.clear();
+        }
+    }
+
+    /**
+     * @return Number of ready NPCs per NPC type
+     */
+    public Map<String, Integer> getIdleCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        idle.forEach((npcType, pool) -> counts.put(npcType, pool.size()));
+        return counts;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        long checkouts = hits + misses;
+        return checkouts == 0 ? 0 : hits * 100.0 / checkouts;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getDestroyed() {
+        return destroyed;
+    }
+}
@@ -0,0 +1,102 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.models.Quest;
+import me.zpleum.zmystic.quest.utils.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects quest progress increments made during a tick and applies them together on the
+ * next one, so a burst of kills from a mob farm costs one progress update, one message and
+ * at most one completion per quest instead of one of each per kill.
+ * All methods must be called on the main thread.
+ */
+public class ProgressAggregator {
+
+    private final MysticQuest plugin;
+    private final Map<Quest, Integer> pending = new LinkedHashMap<>();
+    private boolean scheduled = false;
+
+    // Metrics
+    private long increments = 0;
+    private long updates = 0;
+    private int largestBatch = 0;
+
+    public ProgressAggregator(MysticQuest plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Buffers an increment of one for the quest
+     */
+    public void increment(Quest quest) {
+        increments++;
+        pending.merge(quest, 1, Integer::sum);
+
+        if (!scheduled) {
+            scheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    /**
+     * Applies all buffered increments, also called on shutdown so none are lost
+     */
+    public void flush() {
+        scheduled = false;
+        if (pending.isEmpty()) return;
+
+        List<Map.Entry<Quest, Integer>> batch = new ArrayList<>(pending.entrySet());
+        pending.clear();
+
+        int batchIncrements = 0;
+        for (Map.Entry<Quest, Integer> entry : batch) {
+            batchIncrements += entry.getValue();
+            apply(entry.getKey(), entry.getValue());
+        }
+        largestBatch = Math.max(largestBatch, batchIncrements);
+    }
+
+    private void apply(Quest quest, int delta) {
+        QuestManager questManager = plugin.getQuestManager();
+
+        // Completed, expired or abandoned since the increments were buffered
+        if (!questManager.getPlayerQuests(quest.getPlayerId()).contains(quest)) return;
+
+        updates++;
+        quest.setProgress(Math.min(quest.getProgress() + delta, quest.getTargetAmount()));
+
+        Player player = Bukkit.getPlayer(quest.getPlayerId());
+        if (player != null) {
+            // Send progress message
+            String message = "Quest progress: " + quest.getProgress() + "/" + quest.getTargetAmount();
+            MessageUtils.sendMessage(player, message);
+        }
+
+        // Check if completed
+        if (quest.isCompleted() && player != null) {
+            questManager.completeQuest(quest, player);
+        } else {
+            // Update progress
+            questManager.updateQuestProgress(quest, quest.getProgress());
+        }
+    }
+
+    public long getIncrements() {
+        return increments;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    public int getLargestBatch() {
+        return largestBatch;
+    }
+}
@@ -0,0 +1,102 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.models.Quest;
+import me.zpleum.zmystic.quest.utils.TimingWheel;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fails time-limited quests when their deadline passes. Each deadline is scheduled once on a
+ * timing wheel while the player is online; quests of offline players are picked up again when
+ * they join. All methods must be called on the main thread.
+ */
+public class QuestExpiryScheduler {
+
+    private static final long RESOLUTION = 1000L;
+
+    private final MysticQuest plugin;
+    private final TimingWheel<Quest> wheel = new TimingWheel<>(RESOLUTION, System.currentTimeMillis());
+    private final Map<Quest, TimingWheel.Timeout<Quest>> timeouts = new HashMap<>();
+    private BukkitTask task;
+
+    // Metrics
+    private long expired = 0;
+
+    public QuestExpiryScheduler(MysticQuest plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        // Players already online when the plugin is enabled
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            schedulePlayer(player.getUniqueId());
+        }
+
+        task = Bukkit.getScheduler().runTaskTimer(plugin,
+                () -> wheel.advance(System.currentTimeMillis(), this::expire), 20L, 20L);
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Schedules the deadline of a quest, does nothing for quests without a time limit
+     */
+    public void schedule(Quest quest) {
+        if (!quest.hasTimeLimit() || timeouts.containsKey(quest)) return;
+        timeouts.put(quest, wheel.schedule(quest, quest.getDeadline()));
+    }
+
+    public void cancel(Quest quest) {
+        TimingWheel.Timeout<Quest> timeout = timeouts.remove(quest);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Schedules all of a player's quests, called when they join
+     */
+    public void schedulePlayer(UUID playerId) {
+        for (Quest quest : plugin.getQuestManager().getPlayerQuests(playerId)) {
+            schedule(quest);
+        }
+    }
+
+    /**
+     * Drops the deadlines of a player who is leaving
+     */
+    public void cancelPlayer(UUID playerId) {
+        for (Quest quest : plugin.getQuestManager().getPlayerQuests(playerId)) {
+            cancel(quest);
+        }
+    }
+
+    private void expire(Quest quest) {
+        timeouts.remove(quest);
+
+        Player player = Bukkit.getPlayer(quest.getPlayerId());
+        if (player == null) return;
+
+        expired++;
+        plugin.getQuestManager().failQuest(quest, player);
+    }
+
+    public int getScheduled() {
+        return wheel.size();
+    }
+
+    public long getExpired() {
+        return expired;
+    }
+}
@@ -0,0 +1,202 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.models.Quest;
+import me.zpleum.zmystic.quest.models.QuestTemplate;
+import me.zpleum.zmystic.quest.models.QuestType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Active quests of each player indexed by quest type and resolved target, so an event
+ * only has to look at the quests it can actually progress.
+ * <p>
+ * Quests are indexed under the target resolved by their template: an EntityType for KILL,
+ * a Material for CRAFT and COLLECT and an "ENTITY:INTERACTION" key for INTERACT.
+ * The lists handed out are never modified, so quests may complete while a caller iterates.
+ * <p>
+ * Every indexed quest is also counted server-wide, so event handlers can drop events
+ * for entities, items and interactions no resident player is tracking without a lookup per player.
+ */
+public class QuestIndex {
+
+    private final Map<UUID, Map<QuestType, Map<Object, List<Quest>>>> players = new ConcurrentHashMap<>();
+
+    // Server-wide interest, number of indexed quests per type and per (type, target)
+    private final AtomicIntegerArray typeCounts = new AtomicIntegerArray(QuestType.values().length);
+    private final Map<QuestType, Map<Object, Integer>> targetCounts = new EnumMap<>(QuestType.class);
+    private volatile Consumer<QuestType> interestListener;
+
+    public QuestIndex() {
+        for (QuestType type : QuestType.values()) {
+            targetCounts.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Called with a quest type whenever it gains its first or loses its last indexed quest.
+     * May be called from any thread.
+     */
+    public void setInterestListener(Consumer<QuestType> interestListener) {
+        this.interestListener = interestListener;
+    }
+
+    /**
+     * Replaces the index of a player with the given quests. May be called from the I/O thread
+     * while the player is not yet resident.
+     */
+    public void rebuild(UUID playerId, Collection<Quest> quests) {
+        Map<QuestType, Map<Object, List<Quest>>> byType = new EnumMap<>(QuestType.class);
+        for (Quest quest : quests) {
+            add(byType, quest);
+        }
+        untrackAll(players.put(playerId, byType));
+    }
+
+    public void add(Quest quest) {
+        add(players.computeIfAbsent(quest.getPlayerId(), k -> new EnumMap<>(QuestType.class)), quest);
+    }
+
+    public void remove(Quest quest) {
+        Map<QuestType, Map<Object, List<Quest>>> byType = players.get(quest.getPlayerId());
+        if (byType == null) return;
+
+        Map<Object, List<Quest>> byTarget = byType.get(quest.getType());
+        if (byTarget == null) return;
+
+        Object target = resolveTarget(quest);
+        List<Quest> current = byTarget.get(target);
+        if (current == null || !current.contains(quest)) return;
+
+        if (current.size() == 1) {
+            byTarget.remove(target);
+            if (byTarget.isEmpty()) {
+                byType.remove(quest.getType());
+            }
+        } else {
+            // Copy on write, callers may be iterating the current list
+            List<Quest> updated = new ArrayList<>(current);
+            updated.remove(quest);
+            byTarget.put(target, Collections.unmodifiableList(updated));
+        }
+        track(quest.getType(), target, -1);
+    }
+
+    public void clear(UUID playerId) {
+        untrackAll(players.remove(playerId));
+    }
+
+    /**
+     * @return The player's active quests of this type and target, never null
+     */
+    public List<Quest> find(UUID playerId, QuestType type, Object target) {
+        Map<QuestType, Map<Object, List<Quest>>> byType = players.get(playerId);
+        if (byType == null) return Collections.emptyList();
+
+        Map<Object, List<Quest>> byTarget = byType.get(type);
+        if (byTarget == null) return Collections.emptyList();
+
+        List<Quest> quests = byTarget.get(target);
+        return quests != null ? quests : Collections.emptyList();
+    }
+
+    /**
+     * @return Copy of the targets the player has active quests of this type for
+     */
+    public Set<Object> getTargets(UUID playerId, QuestType type) {
+        Map<QuestType, Map<Object, List<Quest>>> byType = players.get(playerId);
+        if (byType == null) return Collections.emptySet();
+
+        Map<Object, List<Quest>> byTarget = byType.get(type);
+        return byTarget != null ? new HashSet<>(byTarget.keySet()) : Collections.emptySet();
+    }
+
+    /**
+     * @return Whether the player has any active quest of this type
+     */
+    public boolean hasAny(UUID playerId, QuestType type) {
+        Map<QuestType, Map<Object, List<Quest>>> byType = players.get(playerId);
+        return byType != null && byType.containsKey(type);
+    }
+
+    /**
+     * @return Whether any indexed quest on the server has this type
+     */
+    public boolean isTracked(QuestType type) {
+        return typeCounts.get(type.ordinal()) > 0;
+    }
+
+    /**
+     * @return Whether any indexed quest on the server has this type and target
+     */
+    public boolean isTracked(QuestType type, Object target) {
+        return targetCounts.get(type).containsKey(target);
+    }
+
+    /**
+     * @return Number of indexed quests of this type across all players
+     */
+    public int getTrackedCount(QuestType type) {
+        return typeCounts.get(type.ordinal());
+    }
+
+    /**
+     * Builds the key INTERACT quests are indexed under
+     */
+    public static String interactKey(String entity, String interaction) {
+        return QuestTemplate.interactKey(entity, interaction);
+    }
+
+    private void add(Map<QuestType, Map<Object, List<Quest>>> byType, Quest quest) {
+        Map<Object, List<Quest>> byTarget = byType.computeIfAbsent(quest.getType(), k -> new HashMap<>());
+        Object target = resolveTarget(quest);
+
+        List<Quest> current = byTarget.get(target);
+        if (current != null && current.contains(quest)) return;
+
+        List<Quest> updated = current != null ? new ArrayList<>(current) : new ArrayList<>(1);
+        updated.add(quest);
+        byTarget.put(target, Collections.unmodifiableList(updated));
+        track(quest.getType(), target, 1);
+    }
+
+    private void untrackAll(Map<QuestType, Map<Object, List<Quest>>> byType) {
+        if (byType == null) return;
+
+        for (Map.Entry<QuestType, Map<Object, List<Quest>>> typeEntry : byType.entrySet()) {
+            for (Map.Entry<Object, List<Quest>> targetEntry : typeEntry.getValue().entrySet()) {
+                track(typeEntry.getKey(), targetEntry.getKey(), -targetEntry.getValue().size());
+            }
+        }
+    }
+
+    private void track(QuestType type, Object target, int delta) {
+        targetCounts.get(type).compute(target, (k, count) -> {
+            int updated = (count != null ? count : 0) + delta;
+            return updated > 0 ? updated : null;
+        });
+
+        int total = typeCounts.addAndGet(type.ordinal(), delta);
+        boolean changed = delta > 0 ? total == delta : total == 0;
+
+        Consumer<QuestType> listener = interestListener;
+        if (changed && listener != null) {
+            listener.accept(type);
+        }
+    }
+
+    private static Object resolveTarget(Quest quest) {
+        return quest.getTemplate().getTarget();
+    }
+}
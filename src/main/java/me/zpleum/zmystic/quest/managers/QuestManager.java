@@ -2,16 +2,25 @@ package me.zpleum.zmystic.quest.managers;
 
 import me.zpleum.zmystic.quest.MysticQuest;
 import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.models.NPCTypeTable;
 import me.zpleum.zmystic.quest.models.Quest;
 import me.zpleum.zmystic.quest.models.QuestNPC;
+import me.zpleum.zmystic.quest.models.QuestTemplate;
 import me.zpleum.zmystic.quest.models.QuestType;
+import me.zpleum.zmystic.quest.models.RewardTierTable;
+import me.zpleum.zmystic.quest.storage.BinaryPlayerDataStore;
+import me.zpleum.zmystic.quest.storage.JdbcPlayerDataStore;
+import me.zpleum.zmystic.quest.storage.PlayerDataMigrator;
+import me.zpleum.zmystic.quest.storage.PlayerDataStore;
+import me.zpleum.zmystic.quest.storage.PlayerDataWriter;
+import me.zpleum.zmystic.quest.storage.PlayerSnapshot;
+import me.zpleum.zmystic.quest.storage.ProgressJournal;
+import me.zpleum.zmystic.quest.storage.StorageException;
 import me.zpleum.zmystic.quest.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
-import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemFlag;
@@ -19,10 +28,14 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -31,6 +44,20 @@ public class QuestManager {
     private final MysticQuest plugin;
     private final Map<UUID, Set<Quest>> playerQuests;
     private final Map<UUID, Integer> playerXP;
+    // Unlocked reward tiers as a bitset over the indexes of rewardTiers
+    private final Map<UUID, Long> playerRewards;
+    private final Map<UUID, Quest> questsById;
+    private final QuestIndex questIndex;
+    private final PlayerDataStore dataStore;
+    private final PlayerDataWriter dataWriter;
+    private final ProgressJournal journal;
+    private final LeaderboardManager leaderboard;
+    private BukkitTask compactionTask;
+
+    // Players whose data is resident are those with an entry in playerXP
+    private final Set<UUID> pendingUnloads;
+    private final Object residencyLock = new Object();
+    private final Executor mainThreadExecutor;
 
     // NamespacedKeys for persistent data
     private final NamespacedKey QUEST_KEY;
@@ -40,11 +67,24 @@ public class QuestManager {
     private String questItemMaterial;
     private boolean questItemGlow;
     private int maxActiveQuests;
+    private int journalGroupCommit;
+    private int journalCompactInterval;
+    private volatile RewardTierTable rewardTiers;
+    private FileConfiguration compiledRewardsConfig;
+    private volatile Map<String, QuestTemplate> questTemplates;
+    private FileConfiguration compiledQuestsConfig;
 
     public QuestManager(MysticQuest plugin) {
         this.plugin = plugin;
-        this.playerQuests = new HashMap<>();
-        this.playerXP = new HashMap<>();
+        this.playerQuests = new ConcurrentHashMap<>();
+        this.playerXP = new ConcurrentHashMap<>();
+        this.playerRewards = new ConcurrentHashMap<>();
+        this.questsById = new ConcurrentHashMap<>();
+        this.questIndex = new QuestIndex();
+        this.dataStore = createDataStore();
+        this.dataWriter = new PlayerDataWriter(plugin, dataStore, this::createSnapshot);
+        this.pendingUnloads = new HashSet<>();
+        this.mainThreadExecutor = runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
 
         // Initialize keys
         QUEST_KEY = new NamespacedKey(plugin, "quest_id");
@@ -53,8 +93,111 @@ public class QuestManager {
         // Load config values
         loadConfig();
 
-        // Load player data
-        loadPlayerData();
+        // Import legacy player files before anything else touches the database
+        queueMigration();
+
+        // Replay progress left in the journal by the previous run
+        this.journal = openJournal();
+        if (journal != null) {
+            queueCompaction();
+            long interval = journalCompactInterval * 20L;
+            compactionTask = Bukkit.getScheduler().runTaskTimer(plugin, this::queueCompaction, interval, interval);
+        }
+
+        // Load the saved ranking, or build it once from the stored player data
+        this.leaderboard = new LeaderboardManager(plugin);
+        if (!leaderboard.load()) {
+            leaderboard.rebuild(dataWriter, dataStore);
+        }
+        leaderboard.start(dataWriter);
+
+        // Load data for players already online (e.g. after a reload)
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            loadPlayer(player.getUniqueId());
+        }
+
+        // Start write-behind flushing
+        dataWriter.start();
+    }
+
+    private PlayerDataStore createDataStore() {
+        FileConfiguration config = plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG);
+        String storageType = config.getString("xp.storage-type", "FILE");
+
+        if (!"DATABASE".equalsIgnoreCase(storageType)) {
+            return createFileStore();
+        }
+
+        try {
+            File databaseFile = new File(plugin.getDataFolder(), config.getString("storage.database.file", "playerdata.db"));
+            return new JdbcPlayerDataStore(databaseFile, config.getInt("storage.database.pool-size", 3), plugin.getLogger());
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Could not open the player database, using FILE storage instead: " + e.getMessage());
+            return createFileStore();
+        }
+    }
+
+    private BinaryPlayerDataStore createFileStore() {
+        return new BinaryPlayerDataStore(new File(plugin.getDataFolder(), "playerdata"), this::resolveQuestTemplate, plugin.getLogger());
+    }
+
+    private void queueMigration() {
+        if (dataStore instanceof BinaryPlayerDataStore) {
+            // Convert legacy YAML files in bulk, players loaded before this finishes are read from YAML
+            dataWriter.supplyAsync(() -> {
+                try {
+                    ((BinaryPlayerDataStore) dataStore).convertLegacyFiles();
+                } catch (StorageException e) {
+                    plugin.getLogger().severe("Player data conversion failed: " + e.getMessage());
+                }
+                return null;
+            });
+            return;
+        }
+
+        if (!(dataStore instanceof JdbcPlayerDataStore)) return;
+
+        BinaryPlayerDataStore fileStore = createFileStore();
+        PlayerDataMigrator migrator = new PlayerDataMigrator(fileStore, (JdbcPlayerDataStore) dataStore, plugin.getLogger());
+
+        // Runs on the I/O thread, so player loads queued afterwards see the imported data
+        dataWriter.supplyAsync(() -> {
+            try {
+                if (migrator.isNeeded()) {
+                    migrator.migrate();
+                }
+            } catch (StorageException e) {
+                plugin.getLogger().severe("Player data migration failed: " + e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    private ProgressJournal openJournal() {
+        ProgressJournal progressJournal = new ProgressJournal(plugin.getDataFolder(), plugin.getLogger());
+        try {
+            progressJournal.open(journalGroupCommit);
+            return progressJournal;
+        } catch (IOException e) {
+            // Progress changes fall back to full snapshot writes
+            plugin.getLogger().severe("Could not open the progress journal: " + e.getMessage());
+            progressJournal.close();
+            return null;
+        }
+    }
+
+    /**
+     * Folds the journal into the player snapshots on the I/O thread
+     */
+    private void queueCompaction() {
+        dataWriter.supplyAsync(() -> {
+            try {
+                journal.compact(dataStore);
+            } catch (IOException | StorageException e) {
+                plugin.getLogger().severe("Could not compact the progress journal: " + e.getMessage());
+            }
+            return null;
+        });
     }
 
     private void loadConfig() {
@@ -62,6 +205,44 @@ public class QuestManager {
         questItemMaterial = config.getString("quest.quest-item.material", "PAPER");
         questItemGlow = config.getBoolean("quest.quest-item.glow", true);
         maxActiveQuests = config.getInt("quest.max-active-quests", 3);
+        journalGroupCommit = Math.max(1, config.getInt("storage.journal.group-commit", 50));
+        journalCompactInterval = Math.max(1, config.getInt("storage.journal.compact-interval", 300));
+        getRewardTiers();
+        getQuestTemplates();
+    }
+
+    /**
+     * Returns the compiled quest templates, recompiling them if quests.yml was reloaded.
+     * Quests already handed out keep the template they were created from.
+     */
+    public synchronized Map<String, QuestTemplate> getQuestTemplates() {
+        FileConfiguration questsConfig = plugin.getConfigManager().getConfig(ConfigManager.QUESTS_CONFIG);
+        if (questsConfig != compiledQuestsConfig) {
+            questTemplates = QuestTemplate.compile(questsConfig, plugin.getLogger());
+            compiledQuestsConfig = questsConfig;
+        }
+        return questTemplates;
+    }
+
+    /**
+     * Returns the compiled reward tiers, recompiling them if rewards.yml was reloaded
+     */
+    private RewardTierTable getRewardTiers() {
+        FileConfiguration rewardsConfig = plugin.getConfigManager().getConfig(ConfigManager.REWARDS_CONFIG);
+        if (rewardsConfig == compiledRewardsConfig) return rewardTiers;
+
+        RewardTierTable previous = rewardTiers;
+        RewardTierTable compiled = RewardTierTable.compile(rewardsConfig, plugin.getLogger());
+
+        synchronized (residencyLock) {
+            // Tier indexes may have moved, translate the bitsets of resident players
+            if (previous != null) {
+                playerRewards.replaceAll((playerId, bits) -> compiled.remap(bits, previous));
+            }
+            rewardTiers = compiled;
+            compiledRewardsConfig = rewardsConfig;
+        }
+        return compiled;
     }
 
     public void offerRandomQuest(Player player, QuestNPC npc) {
@@ -80,15 +261,27 @@ public class QuestManager {
             return;
         }
 
-        // Randomly select a quest type
-        String questTypeId = availableQuestTypes.get(ThreadLocalRandom.current().nextInt(availableQuestTypes.size()));
+        // Select a quest type by the weights set for this NPC type
+        NPCTypeTable npcTypes = plugin.getNPCManager().getTypeTable();
+        String questTypeId;
+        if (npcTypes.hasType(npc.getNpcType())) {
+            questTypeId = npcTypes.pickQuest(npc.getNpcType());
+        } else {
+            // NPC type was removed from npcs.yml while this NPC was out
+            questTypeId = availableQuestTypes.get(ThreadLocalRandom.current().nextInt(availableQuestTypes.size()));
+        }
+        if (questTypeId == null) {
+            plugin.getLogger().warning("NPC " + npc.getName() + " has no quest types with a positive weight!");
+            return;
+        }
 
         // Create the quest
-        Quest quest = createQuestFromConfig(questTypeId, player.getUniqueId());
-        if (quest == null) {
+        QuestTemplate template = getQuestTemplates().get(questTypeId);
+        if (template == null) {
             plugin.getLogger().warning("Failed to create quest from type: " + questTypeId);
             return;
         }
+        Quest quest = new Quest(UUID.randomUUID(), template, player.getUniqueId());
 
         // Give quest item to player
         ItemStack questItem = createQuestItem(quest);
@@ -103,73 +296,15 @@ public class QuestManager {
         MessageUtils.sendMessage(player, message);
     }
 
-    private Quest createQuestFromConfig(String questTypeId, UUID playerId) {
-        FileConfiguration questsConfig = plugin.getConfigManager().getConfig(ConfigManager.QUESTS_CONFIG);
-
-        if (!questsConfig.contains(questTypeId)) {
-            return null;
-        }
-
-        try {
-            String type = questsConfig.getString(questTypeId + ".type");
-            QuestType questType = QuestType.valueOf(type);
-
-            String name = questsConfig.getString(questTypeId + ".name");
-            String description = questsConfig.getString(questTypeId + ".description");
-            int xpReward = questsConfig.getInt(questTypeId + ".xp");
-
-            // Get specific data based on quest type
-            Map<String, Object> questData = new HashMap<>();
-
-            switch (questType) {
-                case KILL:
-                    questData.put("entity", questsConfig.getString(questTypeId + ".entity"));
-                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount"));
-                    break;
-
-                case COLLECT:
-                    questData.put("item", questsConfig.getString(questTypeId + ".item"));
-                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount"));
-                    break;
-
-                case EXPLORE:
-                    questData.put("biome", questsConfig.getString(questTypeId + ".biome", ""));
-                    questData.put("structure", questsConfig.getString(questTypeId + ".structure", ""));
-                    break;
-                    
-                case CRAFT:
-                    questData.put("item", questsConfig.getString(questTypeId + ".item"));
-                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount", 1));
-                    break;
-                    
-                case INTERACT:
-                    questData.put("entity", questsConfig.getString(questTypeId + ".entity"));
-                    questData.put("interaction", questsConfig.getString(questTypeId + ".interaction"));
-                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount", 1));
-                    break;
-            }
+    /**
+     * Rebuilds a stored quest from its current definition in quests.yml
+     */
+    private PlayerSnapshot.QuestEntry resolveQuestTemplate(UUID questId, String typeId, int progress, long startTime) {
+        QuestTemplate template = getQuestTemplates().get(typeId);
+        if (template == null) return null;
 
-            // Optional time limit
-            if (questsConfig.contains(questTypeId + ".time-limit")) {
-                questData.put("timeLimit", questsConfig.getInt(questTypeId + ".time-limit"));
-            }
-
-            // Create quest with unique ID
-            return new Quest(
-                    UUID.randomUUID(),
-                    questTypeId,
-                    name,
-                    description,
-                    questType,
-                    questData,
-                    xpReward,
-                    playerId
-            );
-
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("Invalid quest type for quest: " + questTypeId);
-            return null;
-        }
+        return new PlayerSnapshot.QuestEntry(questId, typeId, template.getName(), template.getDescription(),
+                template.getType(), template.getData(), template.getXpReward(), progress, startTime);
     }
 
     private ItemStack createQuestItem(Quest quest) {
@@ -197,9 +332,9 @@ public class QuestManager {
 
             meta.setLore(lore);
 
-            // Store quest ID in item
+            // Store quest ID in item as its 16 raw bytes
             PersistentDataContainer container = meta.getPersistentDataContainer();
-            container.set(QUEST_KEY, PersistentDataType.STRING, quest.getId().toString());
+            container.set(QUEST_KEY, PersistentDataType.BYTE_ARRAY, toBytes(quest.getId()));
 
             // Add glow effect if enabled
             if (questItemGlow) {
@@ -215,10 +350,13 @@ public class QuestManager {
     }
 
     public void completeQuest(Quest quest, Player player) {
-        // Remove quest from player's active quests
-        removeQuestFromPlayer(player.getUniqueId(), quest);
+        // Remove quest from player's active quests, a quest only completes once
+        if (!removeQuestFromPlayer(player.getUniqueId(), quest)) {
+            return;
+        }
 
         // Award XP
+        int previousXP = getPlayerXP(player.getUniqueId());
         addXP(player.getUniqueId(), quest.getXpReward());
 
         // Send completion message
@@ -240,73 +378,62 @@ public class QuestManager {
         MessageUtils.sendMessage(player, totalXPMessage);
 
         // Check for reward unlocks
-        checkRewardUnlocks(player);
+        checkRewardUnlocks(player, previousXP);
 
         // Remove quest item from inventory
         removeQuestItemFromInventory(player, quest.getId());
-
-        // Save player data
-        savePlayerData();
     }
 
-    private void checkRewardUnlocks(Player player) {
-        int playerXP = getPlayerXP(player.getUniqueId());
-        FileConfiguration rewardsConfig = plugin.getConfigManager().getConfig(ConfigManager.REWARDS_CONFIG);
-        ConfigurationSection rewardsSection = rewardsConfig.getConfigurationSection("rewards");
-
-        if (rewardsSection == null) return;
-
-        // Sort tiers by XP required
-        List<String> tiers = new ArrayList<>(rewardsSection.getKeys(false));
-        tiers.sort((t1, t2) ->
-            rewardsConfig.getInt("rewards." + t1 + ".xp-required") -
-            rewardsConfig.getInt("rewards." + t2 + ".xp-required")
-        );
+    /**
+     * Ends a quest that ran out of time
+     */
+    public void failQuest(Quest quest, Player player) {
+        if (!removeQuestFromPlayer(player.getUniqueId(), quest)) {
+            return;
+        }
 
-        // Check each tier
-        for (String tier : tiers) {
-            int xpRequired = rewardsConfig.getInt("rewards." + tier + ".xp-required");
+        String message = plugin.getConfigManager().getConfig(ConfigManager.MESSAGES_CONFIG)
+                .getString("quest.failed", "You have failed the quest: %quest_name%.")
+                .replace("%quest_name%", quest.getName());
+        MessageUtils.sendMessage(player, message);
 
-            // Check if player has newly unlocked this tier
-            if (playerXP >= xpRequired && !hasUnlockedReward(player.getUniqueId(), tier)) {
-                // Mark as unlocked
-                setRewardUnlocked(player.getUniqueId(), tier, true);
-
-                // Send unlock message
-                String message = plugin.getConfigManager().getConfig(ConfigManager.MESSAGES_CONFIG)
-                        .getString("xp.reward-unlocked", "You have unlocked a new reward tier: %tier%!")
-                        .replace("%tier%", tier);
-                MessageUtils.sendMessage(player, message);
-
-                // Execute reward commands
-                List<String> commands = rewardsConfig.getStringList("rewards." + tier + ".commands");
-                for (String command : commands) {
-                    command = command.replace("%player%", player.getName());
-                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
-                }
-            }
-        }
+        // Remove quest item from inventory
+        removeQuestItemFromInventory(player, quest.getId());
     }
 
-    private boolean hasUnlockedReward(UUID playerId, String tier) {
-        File playerFile = getPlayerFile(playerId);
-        if (!playerFile.exists()) return false;
+    /**
+     * Unlocks the reward tiers whose threshold was crossed going from the previous XP to the current XP
+     */
+    private void checkRewardUnlocks(Player player, int previousXP) {
+        UUID playerId = player.getUniqueId();
+        int playerXP = getPlayerXP(playerId);
+        if (playerXP <= previousXP) return;
 
-        YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(playerFile);
-        return playerConfig.getBoolean("rewards." + tier + ".unlocked", false);
-    }
+        RewardTierTable tiers = getRewardTiers();
+        long unlocked = playerRewards.getOrDefault(playerId, 0L);
 
-    private void setRewardUnlocked(UUID playerId, String tier, boolean unlocked) {
-        File playerFile = getPlayerFile(playerId);
-        YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(playerFile);
+        // Tiers are sorted by XP required, only the ones between the two values were crossed
+        int from = tiers.countReached(previousXP);
+        int to = tiers.countReached(playerXP);
 
-        playerConfig.set("rewards." + tier + ".unlocked", unlocked);
-        playerConfig.set("rewards." + tier + ".unlocked-date", new Date().getTime());
+        for (int i = from; i < to; i++) {
+            // Check if player has newly unlocked this tier
+            long bit = 1L << i;
+            if ((unlocked & bit) != 0) continue;
+
+            // Mark as unlocked
+            unlocked |= bit;
+            playerRewards.put(playerId, unlocked);
+            markDirty(playerId);
+
+            // Send unlock message
+            String message = plugin.getConfigManager().getConfig(ConfigManager.MESSAGES_CONFIG)
+                    .getString("xp.reward-unlocked", "You have unlocked a new reward tier: %tier%!")
+                    .replace("%tier%", tiers.getName(i));
+            MessageUtils.sendMessage(player, message);
 
-        try {
-            playerConfig.save(playerFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Could not save player reward data: " + e.getMessage());
+            // Queue reward commands, they run under a per-tick time budget
+            plugin.getRewardQueue().enqueue(player, tiers.getCommands(i));
         }
     }
 
@@ -326,12 +453,66 @@ public class QuestManager {
         if (meta == null) return false;
 
         PersistentDataContainer container = meta.getPersistentDataContainer();
-        if (!container.has(QUEST_KEY, PersistentDataType.STRING)) return false;
+        byte[] stored = container.get(QUEST_KEY, PersistentDataType.BYTE_ARRAY);
+        if (stored != null) {
+            return stored.length == 16
+                    && readLong(stored, 0) == questId.getMostSignificantBits()
+                    && readLong(stored, 8) == questId.getLeastSignificantBits();
+        }
 
+        // Scrolls handed out before ids were stored as bytes
         String storedQuestId = container.get(QUEST_KEY, PersistentDataType.STRING);
         return storedQuestId != null && storedQuestId.equals(questId.toString());
     }
 
+    /**
+     * Finds the active quest a scroll belongs to
+     * @return The quest, or null if the item is not the scroll of an active quest
+     */
+    public Quest getQuestFromItem(ItemStack item) {
+        if (item == null || !item.hasItemMeta()) return null;
+
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) return null;
+
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        byte[] stored = container.get(QUEST_KEY, PersistentDataType.BYTE_ARRAY);
+        if (stored != null) {
+            return stored.length == 16 ? questsById.get(new UUID(readLong(stored, 0), readLong(stored, 8))) : null;
+        }
+
+        // Scrolls handed out before ids were stored as bytes
+        String storedQuestId = container.get(QUEST_KEY, PersistentDataType.STRING);
+        if (storedQuestId == null) return null;
+        try {
+            return questsById.get(UUID.fromString(storedQuestId));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] toBytes(UUID id) {
+        byte[] bytes = new byte[16];
+        writeLong(bytes, 0, id.getMostSignificantBits());
+        writeLong(bytes, 8, id.getLeastSignificantBits());
+        return bytes;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
     public void updateQuestProgress(Quest quest, int progress) {
         quest.setProgress(progress);
 
@@ -340,11 +521,16 @@ public class QuestManager {
             Player player = Bukkit.getPlayer(quest.getPlayerId());
             if (player != null && player.isOnline()) {
                 completeQuest(quest, player);
+                return;
             }
         }
 
-        // Save player data
-        savePlayerData();
+        // Progress only needs a journal record, not a full snapshot
+        if (journal != null) {
+            journal.append(quest.getPlayerId(), quest.getId(), progress);
+        } else {
+            markDirty(quest.getPlayerId());
+        }
     }
 
     public Set<Quest> getPlayerQuests(UUID playerId) {
@@ -353,15 +539,34 @@ public class QuestManager {
 
     public void addQuestToPlayer(UUID playerId, Quest quest) {
         playerQuests.computeIfAbsent(playerId, k -> new HashSet<>()).add(quest);
-        savePlayerData();
+        questsById.put(quest.getId(), quest);
+        questIndex.add(quest);
+        markDirty(playerId);
+
+        // Count what the player already holds towards a new collection quest
+        if (quest.getType() == QuestType.COLLECT && plugin.getCollectTracker() != null) {
+            plugin.getCollectTracker().markDirty(playerId);
+        }
+        if (plugin.getExpiryScheduler() != null && Bukkit.getPlayer(playerId) != null) {
+            plugin.getExpiryScheduler().schedule(quest);
+        }
     }
 
-    public void removeQuestFromPlayer(UUID playerId, Quest quest) {
+    /**
+     * @return false if the quest was not active
+     */
+    public boolean removeQuestFromPlayer(UUID playerId, Quest quest) {
         Set<Quest> quests = playerQuests.get(playerId);
-        if (quests != null) {
-            quests.remove(quest);
-            savePlayerData();
+        if (quests == null || !quests.remove(quest)) {
+            return false;
         }
+        questsById.remove(quest.getId(), quest);
+        questIndex.remove(quest);
+        markDirty(playerId);
+        if (plugin.getExpiryScheduler() != null) {
+            plugin.getExpiryScheduler().cancel(quest);
+        }
+        return true;
     }
 
     public int getPlayerXP(UUID playerId) {
@@ -369,145 +574,207 @@ public class QuestManager {
     }
 
     public void addXP(UUID playerId, int amount) {
-        playerXP.put(playerId, getPlayerXP(playerId) + amount);
-        savePlayerData();
+        int xp = getPlayerXP(playerId) + amount;
+        playerXP.put(playerId, xp);
+        leaderboard.update(playerId, xp);
+        markDirty(playerId);
+    }
+
+    /**
+     * Marks a player's data as changed so the write-behind task persists it on its next flush
+     */
+    public void markDirty(UUID playerId) {
+        dataWriter.markDirty(playerId);
+    }
+
+    public boolean isLoaded(UUID playerId) {
+        return playerXP.containsKey(playerId);
     }
 
-    public void savePlayerData() {
-        // Create player data directory if it doesn't exist
-        File playerDataDir = new File(plugin.getDataFolder(), "playerdata");
-        if (!playerDataDir.exists()) {
-            playerDataDir.mkdirs();
+    /**
+     * Loads a player's data on the I/O thread and blocks until it is resident.
+     * Called from AsyncPlayerPreLoginEvent so the data is ready before the player joins.
+     */
+    public void loadPlayer(UUID playerId) {
+        synchronized (residencyLock) {
+            // Rejoined before the previous session was unloaded, keep the resident data
+            pendingUnloads.remove(playerId);
+            if (isLoaded(playerId)) return;
         }
 
-        // Save each player's data
-        for (UUID playerId : playerQuests.keySet()) {
-            savePlayerData(playerId);
+        dataWriter.supplyAsync(() -> {
+            loadPlayerData(playerId);
+            return null;
+        }).join();
+    }
+
+    /**
+     * Writes a player's pending changes and evicts their data once the write has finished
+     */
+    public void unloadPlayer(UUID playerId) {
+        synchronized (residencyLock) {
+            pendingUnloads.add(playerId);
         }
 
-        // Save XP data for players who might not have active quests
-        for (UUID playerId : playerXP.keySet()) {
-            if (!playerQuests.containsKey(playerId)) {
-                savePlayerData(playerId);
+        dataWriter.flushPlayer(playerId).whenComplete((ignored, error) -> {
+            if (plugin.isEnabled()) {
+                mainThreadExecutor.execute(() -> evictPlayer(playerId));
             }
-        }
+        });
     }
 
-    private void savePlayerData(UUID playerId) {
-        File playerFile = getPlayerFile(playerId);
-        YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(playerFile);
-
-        // Save quests
-        Set<Quest> quests = playerQuests.getOrDefault(playerId, new HashSet<>());
-        List<Map<String, Object>> questsList = new ArrayList<>();
+    private void evictPlayer(UUID playerId) {
+        // Changed again while the flush was running, write those changes first
+        if (dataWriter.isDirty(playerId)) {
+            unloadPlayer(playerId);
+            return;
+        }
 
-        for (Quest quest : quests) {
-            Map<String, Object> questMap = new HashMap<>();
-            questMap.put("id", quest.getId().toString());
-            questMap.put("type_id", quest.getTypeId());
-            questMap.put("name", quest.getName());
-            questMap.put("description", quest.getDescription());
-            questMap.put("quest_type", quest.getType().name());
-            questMap.put("quest_data", quest.getData());
-            questMap.put("xp_reward", quest.getXpReward());
-            questMap.put("progress", quest.getProgress());
-            questMap.put("start_time", quest.getStartTime());
+        synchronized (residencyLock) {
+            if (!pendingUnloads.remove(playerId)) return;
 
-            questsList.add(questMap);
+            Set<Quest> quests = playerQuests.remove(playerId);
+            if (quests != null) {
+                for (Quest quest : quests) {
+                    questsById.remove(quest.getId(), quest);
+                }
+            }
+            playerXP.remove(playerId);
+            playerRewards.remove(playerId);
+            questIndex.clear(playerId);
         }
+    }
 
-        playerConfig.set("quests", questsList);
+    /**
+     * Sets a player's XP whether or not they are online. Offline players are updated
+     * on disk from the I/O thread without loading the rest of their data.
+     */
+    public CompletableFuture<Void> setPlayerXP(UUID playerId, int xp) {
+        if (isLoaded(playerId)) {
+            playerXP.put(playerId, xp);
+            leaderboard.update(playerId, xp);
+            markDirty(playerId);
+            return CompletableFuture.completedFuture(null);
+        }
 
-        // Save XP
-        playerConfig.set("mystic_xp", getPlayerXP(playerId));
+        return dataWriter.supplyAsync(() -> {
+            synchronized (residencyLock) {
+                if (isLoaded(playerId)) return false;
+                writeOfflineXP(playerId, xp);
+                return true;
+            }
+        }).thenCompose(written -> written
+                ? CompletableFuture.runAsync(() -> leaderboard.update(playerId, xp), mainThreadExecutor)
+                // Became resident in the meantime, update the in-memory copy instead
+                : CompletableFuture.supplyAsync(() -> setPlayerXP(playerId, xp), mainThreadExecutor)
+                        .thenCompose(future -> future));
+    }
 
-        // Save file
+    private void writeOfflineXP(UUID playerId, int xp) {
         try {
-            playerConfig.save(playerFile);
-        } catch (IOException e) {
+            dataStore.saveXP(playerId, xp);
+        } catch (StorageException e) {
             plugin.getLogger().severe("Could not save player data: " + e.getMessage());
         }
     }
 
-    private void loadPlayerData() {
-        File playerDataDir = new File(plugin.getDataFolder(), "playerdata");
-        if (!playerDataDir.exists()) {
-            return;
+    /**
+     * Flushes all pending changes and waits a bounded time for them to reach disk
+     */
+    public void shutdown() {
+        if (compactionTask != null) {
+            compactionTask.cancel();
         }
+        dataWriter.shutdown();
+        if (journal != null) {
+            journal.close();
+        }
+        leaderboard.shutdown();
+        dataStore.close();
+    }
 
-        File[] playerFiles = playerDataDir.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (playerFiles == null) return;
+    /**
+     * Active quests indexed by type and target, used to dispatch events
+     */
+    public QuestIndex getQuestIndex() {
+        return questIndex;
+    }
 
-        for (File file : playerFiles) {
-            String fileName = file.getName();
-            try {
-                UUID playerId = UUID.fromString(fileName.substring(0, fileName.length() - 4));
-                loadPlayerData(playerId);
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid player data file name: " + fileName);
-            }
-        }
+    public LeaderboardManager getLeaderboard() {
+        return leaderboard;
     }
 
-    private void loadPlayerData(UUID playerId) {
-        File playerFile = getPlayerFile(playerId);
-        if (!playerFile.exists()) return;
+    public PlayerDataWriter getDataWriter() {
+        return dataWriter;
+    }
+
+    /**
+     * @return The progress journal, or null if it could not be opened
+     */
+    public ProgressJournal getJournal() {
+        return journal;
+    }
+
+    private PlayerSnapshot createSnapshot(UUID playerId) {
+        if (!isLoaded(playerId)) return null;
+
+        Set<Quest> quests = playerQuests.getOrDefault(playerId, Collections.emptySet());
+        long journalSeq = journal != null ? journal.getLastSeq() : 0;
+        Set<String> rewards = rewardTiers.toNames(playerRewards.getOrDefault(playerId, 0L));
+        return new PlayerSnapshot(playerId, quests, getPlayerXP(playerId), rewards, journalSeq);
+    }
 
-        YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(playerFile);
+    // Runs on the I/O thread
+    private void loadPlayerData(UUID playerId) {
+        PlayerSnapshot snapshot;
+        try {
+            snapshot = dataStore.load(playerId);
+        } catch (StorageException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
 
-        // Load quests
-        List<?> questsList = playerConfig.getList("quests");
         Set<Quest> quests = new HashSet<>();
+        int xp = 0;
+        Set<String> rewards = Collections.emptySet();
 
-        if (questsList != null) {
-            for (Object obj : questsList) {
-                if (obj instanceof Map) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> questMap = (Map<String, Object>) obj;
-
-                    try {
-                        UUID questId = UUID.fromString((String) questMap.get("id"));
-                        String typeId = (String) questMap.get("type_id");
-                        String name = (String) questMap.get("name");
-                        String description = (String) questMap.get("description");
-                        QuestType questType = QuestType.valueOf((String) questMap.get("quest_type"));
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> questData = (Map<String, Object>) questMap.get("quest_data");
-                        int xpReward = ((Number) questMap.get("xp_reward")).intValue();
-                        int progress = questMap.containsKey("progress") ? ((Number) questMap.get("progress")).intValue() : 0;
-                        long startTime = questMap.containsKey("start_time") ? ((Number) questMap.get("start_time")).longValue() : System.currentTimeMillis();
-
-                        Quest quest = new Quest(questId, typeId, name, description, questType, questData, xpReward, playerId);
-                        quest.setProgress(progress);
-                        quest.setStartTime(startTime);
-
-                        quests.add(quest);
-                    } catch (Exception e) {
-                        plugin.getLogger().warning("Failed to load quest: " + e.getMessage());
-                    }
-                }
+        if (snapshot != null) {
+            // Progress recorded after the snapshot was written is still only in the journal
+            if (journal != null) {
+                snapshot = journal.applyTail(snapshot);
             }
+
+            for (PlayerSnapshot.QuestEntry entry : snapshot.getQuests()) {
+                quests.add(entry.toQuest(playerId, templateFor(entry)));
+            }
+            xp = snapshot.getXp();
+            rewards = snapshot.getUnlockedRewards();
         }
 
-        playerQuests.put(playerId, quests);
+        synchronized (residencyLock) {
+            if (isLoaded(playerId)) return;
 
-        // Load XP
-        playerXP.put(playerId, playerConfig.getInt("mystic_xp", 0));
+            playerQuests.put(playerId, quests);
+            for (Quest quest : quests) {
+                questsById.put(quest.getId(), quest);
+            }
+            questIndex.rebuild(playerId, quests);
+            playerXP.put(playerId, xp);
+            playerRewards.put(playerId, rewardTiers.toBits(rewards));
+        }
     }
 
-    private File getPlayerFile(UUID playerId) {
-        return new File(plugin.getDataFolder(), "playerdata/" + playerId.toString() + ".yml");
+    // Shares the compiled template unless the stored definition differs from quests.yml
+    private QuestTemplate templateFor(PlayerSnapshot.QuestEntry entry) {
+        QuestTemplate template = getQuestTemplates().get(entry.getTypeId());
+        if (template != null && template.hasDefinition(entry.getQuestType(), entry.getName(),
+                entry.getDescription(), entry.getData(), entry.getXpReward())) {
+            return template;
+        }
+        return entry.toTemplate();
     }
 
     public Quest getQuestById(UUID questId) {
-        for (Set<Quest> quests : playerQuests.values()) {
-            for (Quest quest : quests) {
-                if (quest.getId().equals(questId)) {
-                    return quest;
-                }
-            }
-        }
-        return null;
+        return questsById.get(questId);
     }
 
     public NamespacedKey getQUEST_KEY() {
@@ -0,0 +1,332 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.storage.PlayerDataWriter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Runs reward commands a few at a time instead of all in the tick that unlocked them.
+ * Commands are queued and dispatched each tick until the configured time budget is spent,
+ * at least one per tick so the queue always moves.
+ * <p>
+ * Every command not run yet is kept in pending-rewards.dat. Queued commands are written
+ * through the I/O thread as soon as they are queued, ahead of the player data that marks
+ * their tier unlocked, so a crash never loses a reward; at worst a command that already ran
+ * runs again. Commands of players who are offline when their turn comes, or who leave with
+ * commands still queued, are queued again together when the player next joins.
+ * All methods must be called on the main thread.
+ */
+public class RewardDeliveryQueue {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final MysticQuest plugin;
+    private final File file;
+    private final Deque<Delivery> queue = new ArrayDeque<>();
+    private final Map<UUID, List<String>> undelivered = new LinkedHashMap<>();
+    private final Map<String, CommandStats> commandStats = new TreeMap<>();
+    private PlayerDataWriter writer;
+    private BukkitTask deliveryTask;
+    private boolean dirty = false;
+
+    // Metrics
+    private long delivered = 0;
+    private long deferred = 0;
+    private int largestQueue = 0;
+
+    // Config values
+    private long budgetNanos;
+
+    public RewardDeliveryQueue(MysticQuest plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "pending-rewards.dat");
+        loadConfig();
+    }
+
+    private void loadConfig() {
+        budgetNanos = Math.max(1, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("quest.reward-command-budget", 2)) * 1_000_000L;
+    }
+
+    public void start(PlayerDataWriter writer) {
+        this.writer = writer;
+        load();
+
+        deliveryTask = Bukkit.getScheduler().runTaskTimer(plugin, this::deliver, 1L, 1L);
+
+        // Players online across a reload get their rewards without rejoining
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            onJoin(player);
+        }
+    }
+
+    /**
+     * Keeps every command that was not run yet for the next join and saves them
+     */
+    public void shutdown() {
+        if (deliveryTask != null) {
+            deliveryTask.cancel();
+            deliveryTask = null;
+        }
+
+        while (!queue.isEmpty()) {
+            defer(queue.poll());
+        }
+
+        if (dirty) {
+            dirty = false;
+            write(snapshot());
+        }
+    }
+
+    /**
+     * Queues reward commands for a player, %player% is replaced when each command runs.
+     * The commands are saved before any player data written after this call.
+     */
+    public void enqueue(Player player, List<String> commands) {
+        if (commands.isEmpty()) return;
+
+        add(player.getUniqueId(), commands);
+        dirty = false;
+        writeAsync(snapshot());
+    }
+
+    private void add(UUID playerId, List<String> commands) {
+        for (String command : commands) {
+            queue.add(new Delivery(playerId, command));
+        }
+        largestQueue = Math.max(largestQueue, queue.size());
+    }
+
+    /**
+     * Queues the commands a player missed while offline
+     */
+    public void onJoin(Player player) {
+        // Already saved, the file keeps them while they are queued
+        List<String> commands = undelivered.remove(player.getUniqueId());
+        if (commands != null) {
+            add(player.getUniqueId(), commands);
+        }
+    }
+
+    /**
+     * Moves the player's queued commands to the pending file
+     */
+    public void onQuit(UUID playerId) {
+        Iterator<Delivery> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Delivery delivery = iterator.next();
+            if (delivery.playerId.equals(playerId)) {
+                iterator.remove();
+                defer(delivery);
+            }
+        }
+    }
+
+    private void deliver() {
+        long start = System.nanoTime();
+
+        while (!queue.isEmpty()) {
+            Delivery delivery = queue.poll();
+            Player player = Bukkit.getPlayer(delivery.playerId);
+
+            if (player == null) {
+                defer(delivery);
+            } else {
+                dispatch(player, delivery.command);
+            }
+
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+
+        if (dirty) {
+            dirty = false;
+            writeAsync(snapshot());
+        }
+    }
+
+    private void writeAsync(Map<UUID, List<String>> snapshot) {
+        writer.supplyAsync(() -> {
+            write(snapshot);
+            return null;
+        });
+    }
+
+    private void dispatch(Player player, String command) {
+        command = command.replace("%player%", player.getName());
+
+        long start = System.nanoTime();
+        try {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+        } catch (Exception e) {
+            plugin.getLogger().severe("Reward command failed for " + player.getName() + ": " + command + " (" + e.getMessage() + ")");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int space = command.indexOf(' ');
+        String label = (space < 0 ? command : command.substring(0, space)).toLowerCase();
+        commandStats.computeIfAbsent(label, k -> new CommandStats()).record(elapsed);
+        delivered++;
+
+        // Drop it from the file with the next save
+        dirty = true;
+    }
+
+    private void defer(Delivery delivery) {
+        undelivered.computeIfAbsent(delivery.playerId, k -> new ArrayList<>()).add(delivery.command);
+        deferred++;
+        dirty = true;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getLargestQueue() {
+        return largestQueue;
+    }
+
+    /**
+     * @return Number of players with commands waiting for their next join
+     */
+    public int getUndeliveredPlayers() {
+        return undelivered.size();
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getDeferred() {
+        return deferred;
+    }
+
+    /**
+     * Dispatch latency per command label, e.g. "eco" or "lp"
+     */
+    public Map<String, CommandStats> getCommandStats() {
+        return commandStats;
+    }
+
+    // Copy of every command not run yet, taken on the main thread and written on the I/O thread
+    private Map<UUID, List<String>> snapshot() {
+        Map<UUID, List<String>> copy = new LinkedHashMap<>();
+        undelivered.forEach((playerId, commands) -> copy.put(playerId, new ArrayList<>(commands)));
+        for (Delivery delivery : queue) {
+            copy.computeIfAbsent(delivery.playerId, k -> new ArrayList<>()).add(delivery.command);
+        }
+        return copy;
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readUnsignedByte();
+            if (version > FORMAT_VERSION) {
+                plugin.getLogger().warning(file.getName() + " was written by a newer version, ignoring it");
+                return;
+            }
+
+            int playerCount = in.readInt();
+            for (int p = 0; p < playerCount; p++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                int count = in.readInt();
+                List<String> commands = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    commands.add(in.readUTF());
+                }
+                undelivered.put(playerId, commands);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not read " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void write(Map<UUID, List<String>> players) {
+        if (players.isEmpty()) {
+            if (file.exists() && !file.delete()) {
+                plugin.getLogger().severe("Could not delete " + file.getName());
+            }
+            return;
+        }
+
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeByte(FORMAT_VERSION);
+                out.writeInt(players.size());
+                for (Map.Entry<UUID, List<String>> entry : players.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    out.writeInt(entry.getValue().size());
+                    for (String command : entry.getValue()) {
+                        out.writeUTF(command);
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    public static final class CommandStats {
+
+        private long count = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        private void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getAverageMillis() {
+            return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1_000_000.0;
+        }
+    }
+
+    private static final class Delivery {
+
+        private final UUID playerId;
+        private final String command;
+
+        private Delivery(UUID playerId, String command) {
+            this.playerId = playerId;
+            this.command = command;
+        }
+    }
+}
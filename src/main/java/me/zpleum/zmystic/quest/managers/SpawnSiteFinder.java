@@ -0,0 +1,244 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Finds where an NPC should appear around a player. Snapshots of the already loaded chunks
+ * around the player are taken on the main thread, and the candidate spots on a circle around
+ * the player are scored on an async thread against those snapshots, so the search never
+ * loads a chunk or touches the live world off the main thread. Candidates must have room
+ * for the NPC and solid, dry ground; among those, spots the player can see, close to the
+ * player's height and in the dark are preferred.
+ * Methods must be called on the main thread, futures complete on it, also when the search fails.
+ */
+public class SpawnSiteFinder {
+
+    private static final int CANDIDATES = 24;
+    private static final int MAX_HEIGHT_DIFFERENCE = 10;
+
+    private final MysticQuest plugin;
+    private final Executor asyncExecutor;
+    private final Executor mainThreadExecutor;
+
+    // Metrics
+    private long searches = 0;
+    private long found = 0;
+    private long searchNanos = 0;
+    private long maxSearchNanos = 0;
+    private long snapshotNanos = 0;
+    private int pending = 0;
+
+    public SpawnSiteFinder(MysticQuest plugin) {
+        this.plugin = plugin;
+        this.asyncExecutor = runnable -> Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable);
+        this.mainThreadExecutor = runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
+    }
+
+    /**
+     * Searches for a spawn location at the given distance from the center, facing it
+     * @return Future completed on the main thread with the location, or null if there is no suitable spot
+     */
+    public CompletableFuture<Location> find(Location center, int distance) {
+        World world = center.getWorld();
+        if (world == null) return CompletableFuture.completedFuture(null);
+
+        // Only chunks that are already loaded, a spawn is never worth loading one
+        long start = System.nanoTime();
+        Map<Long, ChunkSnapshot> chunks = new HashMap<>();
+        int minChunkX = (center.getBlockX() - distance) >> 4;
+        int maxChunkX = (center.getBlockX() + distance) >> 4;
+        int minChunkZ = (center.getBlockZ() - distance) >> 4;
+        int maxChunkZ = (center.getBlockZ() + distance) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    chunks.put(chunkKey(chunkX, chunkZ),
+                            world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false));
+                }
+            }
+        }
+        snapshotNanos += System.nanoTime() - start;
+
+        searches++;
+        pending++;
+
+        Location origin = center.clone();
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+
+        CompletableFuture<Location> future = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> {
+            long searchStart = System.nanoTime();
+            Location location = search(world, origin, distance, chunks, minHeight, maxHeight);
+            return new Result(location, System.nanoTime() - searchStart);
+        }, asyncExecutor).whenComplete((result, error) -> {
+            // Hop back even if the search failed, so the search is always accounted for
+            try {
+                mainThreadExecutor.execute(() -> complete(future, result, error));
+            } catch (RuntimeException e) {
+                // The plugin is disabled and can no longer schedule, nobody is waiting anymore
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private void complete(CompletableFuture<Location> future, Result result, Throwable error) {
+        pending--;
+        if (error != null) {
+            future.completeExceptionally(error);
+            return;
+        }
+
+        searchNanos += result.nanos;
+        maxSearchNanos = Math.max(maxSearchNanos, result.nanos);
+        if (result.location != null) found++;
+        future.complete(result.location);
+    }
+
+    private static Location search(World world, Location center, int distance, Map<Long, ChunkSnapshot> chunks,
+                                   int minHeight, int maxHeight) {
+        double eyeX = center.getX();
+        double eyeY = center.getY() + 1.62;
+        double eyeZ = center.getZ();
+
+        Location best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+
+        // Evenly spaced around the circle, starting at a random angle
+        double offset = ThreadLocalRandom.current().nextDouble(Math.PI * 2);
+        for (int i = 0; i < CANDIDATES; i++) {
+            double angle = offset + i * (Math.PI * 2 / CANDIDATES);
+            int x = (int) Math.floor(center.getX() + distance * Math.cos(angle));
+            int z = (int) Math.floor(center.getZ() + distance * Math.sin(angle));
+
+            ChunkSnapshot chunk = chunks.get(chunkKey(x >> 4, z >> 4));
+            if (chunk == null) continue;
+
+            int localX = x & 15;
+            int localZ = z & 15;
+            int groundY = chunk.getHighestBlockYAt(localX, localZ);
+            int feetY = groundY + 1;
+            if (groundY < minHeight || feetY + 1 >= maxHeight) continue;
+
+            // Room for the NPC on solid ground, not in water or lava
+            Material ground = chunk.getBlockType(localX, groundY, localZ);
+            if (!ground.isSolid() || ground == Material.WATER || ground == Material.LAVA) continue;
+            if (!chunk.getBlockType(localX, feetY, localZ).isAir()) continue;
+            if (!chunk.getBlockType(localX, feetY + 1, localZ).isAir()) continue;
+
+            int heightDifference = Math.abs(feetY - center.getBlockY());
+            if (heightDifference > MAX_HEIGHT_DIFFERENCE) continue;
+
+            double score = -heightDifference * 2.0;
+            if (hasLineOfSight(chunks, eyeX, eyeY, eyeZ, x + 0.5, feetY + 1.5, z + 0.5, minHeight, maxHeight)) {
+                score += 20;
+            }
+
+            // Mysterious strangers prefer to appear in the dark
+            int light = Math.max(chunk.getBlockSkyLight(localX, feetY, localZ), chunk.getBlockEmittedLight(localX, feetY, localZ));
+            score += (15 - light) * 0.5;
+
+            if (score > bestScore) {
+                bestScore = score;
+                best = new Location(world, x, feetY, z);
+            }
+        }
+
+        if (best == null) return null;
+
+        // Set the yaw to face the player
+        double dx = center.getX() - best.getX();
+        double dz = center.getZ() - best.getZ();
+        best.setYaw((float) Math.toDegrees(Math.atan2(-dx, dz)));
+        return best;
+    }
+
+    /**
+     * Steps along the line between two points, blocked by any occluding block. Parts of the
+     * line outside the snapshotted chunks count as clear.
+     */
+    private static boolean hasLineOfSight(Map<Long, ChunkSnapshot> chunks, double fromX, double fromY, double fromZ,
+                                          double toX, double toY, double toZ, int minHeight, int maxHeight) {
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+        int steps = (int) Math.ceil(Math.sqrt(dx * dx + dy * dy + dz * dz) * 2);
+
+        for (int step = 1; step < steps; step++) {
+            double t = (double) step / steps;
+            int x = (int) Math.floor(fromX + dx * t);
+            int y = (int) Math.floor(fromY + dy * t);
+            int z = (int) Math.floor(fromZ + dz * t);
+            if (y < minHeight || y >= maxHeight) continue;
+
+            ChunkSnapshot chunk = chunks.get(chunkKey(x >> 4, z >> 4));
+            if (chunk != null && chunk.getBlockType(x & 15, y, z & 15).isOccluding()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    public long getFound() {
+        return found;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return Percentage of finished searches that found a spot
+     */
+    public double getSuccessRate() {
+        long finished = searches - pending;
+        return finished == 0 ? 0 : found * 100.0 / finished;
+    }
+
+    public double getAverageSearchMillis() {
+        long finished = searches - pending;
+        return finished == 0 ? 0 : searchNanos / 1_000_000.0 / finished;
+    }
+
+    public double getMaxSearchMillis() {
+        return maxSearchNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return Average main thread time spent taking chunk snapshots per search
+     */
+    public double getAverageSnapshotMillis() {
+        return searches == 0 ? 0 : snapshotNanos / 1_000_000.0 / searches;
+    }
+
+    private static final class Result {
+
+        private final Location location;
+        private final long nanos;
+
+        private Result(Location location, long nanos) {
+            this.location = location;
+            this.nanos = nanos;
+        }
+    }
+}
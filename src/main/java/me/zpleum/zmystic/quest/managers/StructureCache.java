@@ -0,0 +1,425 @@
+package me.zpleum.zmystic.quest.managers;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import me.zpleum.zmystic.quest.storage.PlayerDataWriter;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.StructureType;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Nearest structure of each type per 512x512 block region, so EXPLORE quests only need a
+ * distance check instead of a structure search on every move. A region's result settles most
+ * checks: no structure near its center means none near any player inside it, and a structure
+ * close enough to the player is a match. Only when another structure could still be closer to
+ * the player than the one nearest the center is the player's own chunk searched, like the
+ * original per-move search did.
+ * <p>
+ * Unknown regions and chunks are queued and searched on the main thread, where Bukkit requires
+ * world access to happen, within a time budget per tick. Results depend only on the world seed,
+ * so they are saved to structures/&lt;seed&gt;_&lt;environment&gt;.dat and reused across restarts and
+ * worlds sharing a seed. All methods must be called on the main thread.
+ */
+public class StructureCache {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final int REGION_SHIFT = 9;
+    private static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+    // Largest search radius allowed, the one of the original per-move lookup, in chunks
+    private static final int MAX_SEARCH_RADIUS = 100;
+
+    private final MysticQuest plugin;
+    private final File directory;
+    private final Map<UUID, WorldCache> worlds = new HashMap<>();
+    private final Queue<Lookup> queue = new ArrayDeque<>();
+    private final Set<Lookup> queued = new HashSet<>();
+    private PlayerDataWriter writer;
+    private BukkitTask lookupTask;
+    private BukkitTask saveTask;
+
+    // Metrics
+    private long hits = 0;
+    private long misses = 0;
+    private long lookups = 0;
+    private long lookupNanos = 0;
+    private long maxLookupNanos = 0;
+    private long budgetDebtNanos = 0;
+
+    // Config values
+    private int searchRadius;
+    private double matchDistance;
+    private long lookupBudgetNanos;
+    private int saveInterval;
+
+    public StructureCache(MysticQuest plugin) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "structures");
+        loadConfig();
+    }
+
+    private void loadConfig() {
+        searchRadius = Math.max(1, Math.min(MAX_SEARCH_RADIUS, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("explore.structure-search-radius", 64)));
+        matchDistance = searchRadius * 16.0;
+        lookupBudgetNanos = Math.max(1, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("explore.structure-lookup-budget", 2)) * 1_000_000L;
+        saveInterval = Math.max(1, plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG)
+                .getInt("explore.structure-save-interval", 300));
+    }
+
+    public void start(PlayerDataWriter writer) {
+        this.writer = writer;
+        lookupTask = Bukkit.getScheduler().runTaskTimer(plugin, this::runLookups, 1L, 1L);
+
+        long interval = saveInterval * 20L;
+        saveTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            for (WorldCache cache : worlds.values()) {
+                if (!cache.dirty) continue;
+                cache.dirty = false;
+
+                WorldCache snapshot = cache.snapshot();
+                writer.supplyAsync(() -> {
+                    write(cache.file, snapshot);
+                    return null;
+                });
+            }
+        }, interval, interval);
+    }
+
+    public void shutdown() {
+        if (lookupTask != null) {
+            lookupTask.cancel();
+            lookupTask = null;
+        }
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+
+        for (WorldCache cache : worlds.values()) {
+            if (cache.dirty) {
+                cache.dirty = false;
+                write(cache.file, cache.snapshot());
+            }
+        }
+    }
+
+    /**
+     * Checks whether a structure of the given type is within the search radius of a location.
+     * Regions that were never searched return false and are queued, the player is checked
+     * again on a later move once the search has run.
+     */
+    public boolean isNear(Location location, StructureType type) {
+        World world = location.getWorld();
+        if (type == null || world == null || !world.canGenerateStructures()) return false;
+
+        WorldCache cache = getWorldCache(world);
+        if (cache.loading) return false;
+
+        int regionX = location.getBlockX() >> REGION_SHIFT;
+        int regionZ = location.getBlockZ() >> REGION_SHIFT;
+        StructurePos pos = cache.get(cache.regions, type.getName(), gridKey(regionX, regionZ));
+        if (pos == null) {
+            queue(world, type, regionX, regionZ, false);
+            return false;
+        }
+
+        hits++;
+        if (pos == StructurePos.NONE) return false;
+        if (distance(pos, location.getX(), location.getZ()) <= matchDistance) return true;
+
+        // Any structure closer to the player is at least as far from the center as this one
+        double centerX = regionX * REGION_SIZE + REGION_SIZE / 2.0;
+        double centerZ = regionZ * REGION_SIZE + REGION_SIZE / 2.0;
+        double playerToCenter = Math.hypot(location.getX() - centerX, location.getZ() - centerZ);
+        if (distance(pos, centerX, centerZ) > matchDistance + playerToCenter) return false;
+
+        // Another structure could be in reach, fall back to a search from the player's chunk
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        StructurePos chunkPos = cache.get(cache.chunks, type.getName(), gridKey(chunkX, chunkZ));
+        if (chunkPos == null) {
+            queue(world, type, chunkX, chunkZ, true);
+            return false;
+        }
+        return chunkPos != StructurePos.NONE && distance(chunkPos, location.getX(), location.getZ()) <= matchDistance;
+    }
+
+    private void queue(World world, StructureType type, int x, int z, boolean chunk) {
+        misses++;
+        Lookup lookup = new Lookup(world.getUID(), type, x, z, chunk);
+        if (queued.add(lookup)) {
+            queue.add(lookup);
+        }
+    }
+
+    private static double distance(StructurePos pos, double x, double z) {
+        return Math.hypot(pos.x - x, pos.z - z);
+    }
+
+    private WorldCache getWorldCache(World world) {
+        WorldCache cache = worlds.get(world.getUID());
+        if (cache != null) return cache;
+
+        File file = new File(directory, world.getSeed() + "_" + world.getEnvironment().name() + ".dat");
+        WorldCache created = new WorldCache(file);
+        worlds.put(world.getUID(), created);
+
+        if (!file.exists()) return created;
+
+        // Read the saved regions on the I/O thread, searches are held back until it is done
+        created.loading = true;
+        writer.supplyAsync(() -> read(file)).thenAccept(saved -> {
+            if (!plugin.isEnabled()) return;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                created.merge(saved);
+                created.loading = false;
+            });
+        });
+        return created;
+    }
+
+    /**
+     * Runs queued searches while this tick's time budget lasts. A search can take longer than
+     * the whole budget, the time it ran over is paid back from the budgets of the next ticks.
+     */
+    private void runLookups() {
+        long budget = lookupBudgetNanos - budgetDebtNanos;
+        if (budget <= 0) {
+            budgetDebtNanos -= lookupBudgetNanos;
+            return;
+        }
+
+        long spent = 0;
+        while (spent < budget && !queue.isEmpty()) {
+            Lookup lookup = queue.poll();
+            queued.remove(lookup);
+
+            World world = Bukkit.getWorld(lookup.worldId);
+            WorldCache cache = worlds.get(lookup.worldId);
+            if (world == null || cache == null) continue;
+
+            Map<String, Map<Long, StructurePos>> grid = lookup.chunk ? cache.chunks : cache.regions;
+            long key = gridKey(lookup.x, lookup.z);
+            if (cache.get(grid, lookup.type.getName(), key) != null) continue;
+
+            // Search from the cell center, regions far enough to cover their corners
+            int size = lookup.chunk ? 16 : REGION_SIZE;
+            Location center = new Location(world, lookup.x * size + size / 2.0, 64, lookup.z * size + size / 2.0);
+            int radius = searchRadius + (lookup.chunk ? 1 : REGION_SIZE / 16);
+
+            long start = System.nanoTime();
+            Location found = world.locateNearestStructure(center, lookup.type, radius, false);
+            long elapsed = System.nanoTime() - start;
+            spent += elapsed;
+            lookupNanos += elapsed;
+            maxLookupNanos = Math.max(maxLookupNanos, elapsed);
+            lookups++;
+
+            grid.computeIfAbsent(lookup.type.getName(), k -> new HashMap<>()).put(key,
+                    found != null ? new StructurePos(found.getBlockX(), found.getBlockZ()) : StructurePos.NONE);
+            cache.dirty = true;
+        }
+        budgetDebtNanos = Math.max(0, spent - budget);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public int getQueuedLookups() {
+        return queue.size();
+    }
+
+    public double getAverageLookupMillis() {
+        return lookups == 0 ? 0 : lookupNanos / 1_000_000.0 / lookups;
+    }
+
+    public double getMaxLookupMillis() {
+        return maxLookupNanos / 1_000_000.0;
+    }
+
+    private WorldCache read(File file) {
+        WorldCache saved = new WorldCache(file);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readUnsignedByte();
+            if (version > FORMAT_VERSION) {
+                plugin.getLogger().warning(file.getName() + " was written by a newer version, ignoring it");
+                return saved;
+            }
+
+            // Region results of version 1 were searched further out, which still holds
+            readGrid(in, saved.regions);
+            if (version >= 2) {
+                readGrid(in, saved.chunks);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not read " + file.getName() + ": " + e.getMessage());
+        }
+        return saved;
+    }
+
+    private static void readGrid(DataInputStream in, Map<String, Map<Long, StructurePos>> types) throws IOException {
+        int typeCount = in.readInt();
+        for (int t = 0; t < typeCount; t++) {
+            String type = in.readUTF();
+            int count = in.readInt();
+            Map<Long, StructurePos> cells = new HashMap<>(count * 2);
+
+            for (int i = 0; i < count; i++) {
+                long key = in.readLong();
+                boolean found = in.readBoolean();
+                int x = in.readInt();
+                int z = in.readInt();
+                cells.put(key, found ? new StructurePos(x, z) : StructurePos.NONE);
+            }
+            types.put(type, cells);
+        }
+    }
+
+    private static void writeGrid(DataOutputStream out, Map<String, Map<Long, StructurePos>> types) throws IOException {
+        out.writeInt(types.size());
+        for (Map.Entry<String, Map<Long, StructurePos>> entry : types.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<Long, StructurePos> cell : entry.getValue().entrySet()) {
+                StructurePos pos = cell.getValue();
+                out.writeLong(cell.getKey());
+                out.writeBoolean(pos != StructurePos.NONE);
+                out.writeInt(pos.x);
+                out.writeInt(pos.z);
+            }
+        }
+    }
+
+    private void write(File file, WorldCache cache) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            plugin.getLogger().severe("Could not create " + directory.getName() + " directory");
+            return;
+        }
+
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeByte(FORMAT_VERSION);
+                writeGrid(out, cache.regions);
+                writeGrid(out, cache.chunks);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Could not save " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static long gridKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static final class WorldCache {
+
+        private final File file;
+        private final Map<String, Map<Long, StructurePos>> regions = new HashMap<>(); // Type -> region -> nearest to its center
+        private final Map<String, Map<Long, StructurePos>> chunks = new HashMap<>();  // Type -> chunk -> nearest to its center
+        private boolean loading = false;
+        private boolean dirty = false;
+
+        private WorldCache(File file) {
+            this.file = file;
+        }
+
+        private StructurePos get(Map<String, Map<Long, StructurePos>> grid, String type, long key) {
+            Map<Long, StructurePos> cells = grid.get(type);
+            return cells != null ? cells.get(key) : null;
+        }
+
+        // Adds saved results without replacing ones searched while they were being read
+        private void merge(WorldCache saved) {
+            saved.regions.forEach((type, cells) -> cells.forEach(regions.computeIfAbsent(type, k -> new HashMap<>())::putIfAbsent));
+            saved.chunks.forEach((type, cells) -> cells.forEach(chunks.computeIfAbsent(type, k -> new HashMap<>())::putIfAbsent));
+        }
+
+        // Copy taken on the main thread and written on the I/O thread
+        private WorldCache snapshot() {
+            WorldCache copy = new WorldCache(file);
+            regions.forEach((type, cells) -> copy.regions.put(type, new HashMap<>(cells)));
+            chunks.forEach((type, cells) -> copy.chunks.put(type, new HashMap<>(cells)));
+            return copy;
+        }
+    }
+
+    private static final class StructurePos {
+
+        // Searched, but no structure of the type within the radius
+        private static final StructurePos NONE = new StructurePos(0, 0);
+
+        private final int x;
+        private final int z;
+
+        private StructurePos(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+    }
+
+    private static final class Lookup {
+
+        private final UUID worldId;
+        private final StructureType type;
+        private final int x;
+        private final int z;
+        private final boolean chunk; // Chunk coordinates if true, region coordinates otherwise
+
+        private Lookup(UUID worldId, StructureType type, int x, int z, boolean chunk) {
+            this.worldId = worldId;
+            this.type = type;
+            this.x = x;
+            this.z = z;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Lookup)) return false;
+            Lookup other = (Lookup) o;
+            return x == other.x && z == other.z && chunk == other.chunk
+                    && worldId.equals(other.worldId) && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(worldId, type.getName(), x, z, chunk);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package me.zpleum.zmystic.quest.models;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Action bar frames of every NPC type's encounter, built once from npcs.yml and messages.yml
+ * so the typing animations only pick the next prebuilt frame instead of cutting and parsing
+ * the text again every step. Frame {@code i} of a story shows its first {@code i} characters,
+ * the last frame shows all of it. All methods must be called on the main thread.
+ */
+public final class ActionBarFrames {
+
+    // Stories longer than this are cut in the accept/reject prompt to avoid ActionBar cutoff
+    private static final int PROMPT_STORY_LENGTH = 40;
+
+    private final Map<String, Frames> types;
+    private final String acceptStory;
+
+    private ActionBarFrames(Map<String, Frames> types, String acceptStory) {
+        this.types = types;
+        this.acceptStory = acceptStory;
+    }
+
+    public static ActionBarFrames compile(FileConfiguration npcsConfig, FileConfiguration messagesConfig) {
+        String acceptStory = messagesConfig.getString("npc.quest-accepted-story",
+                "Thank you for accepting. Your quest awaits...");
+
+        Map<String, Frames> types = new HashMap<>();
+        for (String npcType : npcsConfig.getKeys(false)) {
+            String name = ChatColor.translateAlternateColorCodes('&',
+                    npcsConfig.getString(npcType + ".name", "Mysterious Figure"));
+            String story = npcsConfig.getString(npcType + ".story",
+                    "I have a secret quest for you. Are you brave enough to accept?");
+            types.put(npcType, new Frames(name, story, acceptStory));
+        }
+        return new ActionBarFrames(types, acceptStory);
+    }
+
+    /**
+     * @return Frames of the NPC's type, built from the NPC itself if its type is no longer configured
+     */
+    public Frames get(QuestNPC npc) {
+        return types.computeIfAbsent(npc.getNpcType(), k -> new Frames(npc.getName(), npc.getQuestStory(), acceptStory));
+    }
+
+    public static final class Frames {
+
+        private final BaseComponent[][] story;
+        private final BaseComponent[] prompt;
+        private final BaseComponent[][] acceptStory;
+
+        private Frames(String name, String story, String acceptStory) {
+            String prefix = "§6" + name + ": §f";
+            this.story = typing(prefix, story);
+            String promptStory = story.length() > PROMPT_STORY_LENGTH ? story.substring(0, PROMPT_STORY_LENGTH) + "..." : story;
+            this.prompt = TextComponent.fromLegacyText(prefix + promptStory + " §a/accept §7or §c/reject");
+            this.acceptStory = typing(prefix, acceptStory);
+        }
+
+        private static BaseComponent[][] typing(String prefix, String text) {
+            BaseComponent[][] frames = new BaseComponent[text.length() + 1][];
+            for (int i = 0; i <= text.length(); i++) {
+                frames[i] = TextComponent.fromLegacyText(prefix + text.substring(0, i));
+            }
+            return frames;
+        }
+
+        /**
+         * @return Typing frames of the quest story offered by the NPC
+         */
+        public BaseComponent[][] getStory() {
+            return story;
+        }
+
+        /**
+         * @return Story, cut if long, followed by the accept and reject commands
+         */
+        public BaseComponent[] getPrompt() {
+            return prompt;
+        }
+
+        /**
+         * @return Typing frames of the story told after the quest is accepted
+         */
+        public BaseComponent[][] getAcceptStory() {
+            return acceptStory;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package me.zpleum.zmystic.quest.models;
+
+/**
+ * Stages of an NPC encounter, each stepped at its own pace by the NPC manager's tick engine
+ */
+public enum EncounterState {
+    APPROACH(10),   // Walking up to the player, leaves when the player gets away or time runs out
+    OFFER(2),       // Telling the story and waiting for /accept or /reject
+    STORY(2),       // Quest accepted, telling the rest before handing it over
+    REJECT(5),      // Backing away into the shadows before vanishing
+    DESPAWN(60);    // Quest handed over, vanishes after one last delay
+
+    private final int stepTicks;
+
+    EncounterState(int stepTicks) {
+        this.stepTicks = stepTicks;
+    }
+
+    /**
+     * @return Ticks between two steps in this state
+     */
+    public int getStepTicks() {
+        return stepTicks;
+    }
+}
@@ -0,0 +1,172 @@
+package me.zpleum.zmystic.quest.models;
+
+import me.zpleum.zmystic.quest.utils.AliasTable;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * NPC types from npcs.yml, compiled once into alias tables for weighted random picks.
+ * Each type may set a weight, the worlds it appears in and a permission players need to
+ * meet it, and weights for the quests it offers. The table for a world and a set of held
+ * permissions is built the first time that combination comes up and reused after, so a
+ * spawn never filters the type list. All methods must be called on the main thread.
+ */
+public final class NPCTypeTable {
+
+    public static final int MAX_PERMISSIONS = Long.SIZE;
+
+    // Variant key of worlds no NPC type is limited to
+    private static final String ANY_WORLD = "";
+
+    private final List<TypeEntry> types;
+    private final String[] permissions;
+    private final Set<String> worlds;
+    private final Map<String, AliasTable<String>> questPools;
+    private final Map<String, Map<Long, AliasTable<String>>> variants = new HashMap<>();
+
+    private NPCTypeTable(List<TypeEntry> types, String[] permissions, Set<String> worlds,
+                         Map<String, AliasTable<String>> questPools) {
+        this.types = types;
+        this.permissions = permissions;
+        this.worlds = worlds;
+        this.questPools = questPools;
+    }
+
+    public static NPCTypeTable compile(FileConfiguration npcsConfig, Logger logger) {
+        List<TypeEntry> types = new ArrayList<>();
+        List<String> permissions = new ArrayList<>();
+        Set<String> worlds = new HashSet<>();
+        Map<String, AliasTable<String>> questPools = new LinkedHashMap<>();
+
+        for (String npcType : npcsConfig.getKeys(false)) {
+            ConfigurationSection section = npcsConfig.getConfigurationSection(npcType);
+            if (section == null) continue;
+
+            double weight = section.getDouble("weight", 1.0);
+            if (weight < 0) {
+                logger.warning("Negative weight for NPC type " + npcType + ", it will not spawn randomly");
+            }
+
+            List<String> typeWorlds = section.getStringList("worlds");
+            worlds.addAll(typeWorlds);
+
+            int permissionIndex = -1;
+            String permission = section.getString("permission", "");
+            if (!permission.isEmpty()) {
+                permissionIndex = permissions.indexOf(permission);
+                if (permissionIndex < 0 && permissions.size() < MAX_PERMISSIONS) {
+                    permissionIndex = permissions.size();
+                    permissions.add(permission);
+                } else if (permissionIndex < 0) {
+                    logger.warning("Only " + MAX_PERMISSIONS + " different NPC permissions are supported, "
+                            + npcType + " will not spawn randomly");
+                    weight = 0;
+                }
+            }
+
+            types.add(new TypeEntry(npcType, weight,
+                    typeWorlds.isEmpty() ? null : new HashSet<>(typeWorlds), permissionIndex));
+
+            // Quests are offered with weight 1 unless listed under quest-weights
+            List<String> questTypes = section.getStringList("quest-types");
+            ConfigurationSection questWeights = section.getConfigurationSection("quest-weights");
+            double[] weights = new double[questTypes.size()];
+            for (int i = 0; i < questTypes.size(); i++) {
+                weights[i] = questWeights != null ? questWeights.getDouble(questTypes.get(i), 1.0) : 1.0;
+            }
+            questPools.put(npcType, new AliasTable<>(questTypes, weights));
+        }
+
+        return new NPCTypeTable(Collections.unmodifiableList(types), permissions.toArray(new String[0]),
+                Collections.unmodifiableSet(worlds), Collections.unmodifiableMap(questPools));
+    }
+
+    /**
+     * Picks a random NPC type by weight among the types that can appear to this player
+     * @return The NPC type, or null if none can
+     */
+    public String pickType(Player player) {
+        long held = 0L;
+        for (int i = 0; i < permissions.length; i++) {
+            if (player.hasPermission(permissions[i])) {
+                held |= 1L << i;
+            }
+        }
+
+        String world = player.getWorld().getName();
+        String worldKey = worlds.contains(world) ? world : ANY_WORLD;
+
+        return variants.computeIfAbsent(worldKey, k -> new HashMap<>())
+                .computeIfAbsent(held, mask -> buildVariant(worldKey, mask))
+                .next();
+    }
+
+    /**
+     * Picks a random quest by weight from the quests an NPC type offers
+     * @return The quest type id, or null if the NPC type offers none or does not exist
+     */
+    public String pickQuest(String npcType) {
+        AliasTable<String> pool = questPools.get(npcType);
+        return pool != null ? pool.next() : null;
+    }
+
+    public boolean hasType(String npcType) {
+        return questPools.containsKey(npcType);
+    }
+
+    /**
+     * @return Number of world and permission combinations compiled so far
+     */
+    public int getVariantCount() {
+        int count = 0;
+        for (Map<Long, AliasTable<String>> masks : variants.values()) {
+            count += masks.size();
+        }
+        return count;
+    }
+
+    private AliasTable<String> buildVariant(String worldKey, long held) {
+        List<String> names = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+
+        for (TypeEntry type : types) {
+            if (type.worlds != null && !type.worlds.contains(worldKey)) continue;
+            if (type.permissionIndex >= 0 && (held & (1L << type.permissionIndex)) == 0) continue;
+
+            names.add(type.name);
+            weights.add(type.weight);
+        }
+
+        double[] weightArray = new double[weights.size()];
+        for (int i = 0; i < weightArray.length; i++) {
+            weightArray[i] = weights.get(i);
+        }
+        return new AliasTable<>(names, weightArray);
+    }
+
+    private static final class TypeEntry {
+
+        private final String name;
+        private final double weight;
+        private final Set<String> worlds;     // null if the type appears in every world
+        private final int permissionIndex;    // -1 if no permission is needed
+
+        private TypeEntry(String name, double weight, Set<String> worlds, int permissionIndex) {
+            this.name = name;
+            this.weight = weight;
+            this.worlds = worlds;
+            this.permissionIndex = permissionIndex;
+        }
+    }
+}
@@ -6,25 +6,14 @@ import java.util.UUID;
 public class Quest {
     
     private final UUID id;
-    private final String typeId;
-    private final String name;
-    private final String description;
-    private final QuestType type;
-    private final Map<String, Object> data;
-    private final int xpReward;
+    private final QuestTemplate template;
     private final UUID playerId;
     private int progress;
     private long startTime;
     
-    public Quest(UUID id, String typeId, String name, String description, QuestType type, 
-                 Map<String, Object> data, int xpReward, UUID playerId) {
+    public Quest(UUID id, QuestTemplate template, UUID playerId) {
         this.id = id;
-        this.typeId = typeId;
-        this.name = name;
-        this.description = description;
-        this.type = type;
-        this.data = data;
-        this.xpReward = xpReward;
+        this.template = template;
         this.playerId = playerId;
         this.progress = 0;
         this.startTime = System.currentTimeMillis();
@@ -34,28 +23,35 @@ public class Quest {
         return id;
     }
     
+    /**
+     * Shared definition of this quest
+     */
+    public QuestTemplate getTemplate() {
+        return template;
+    }
+    
     public String getTypeId() {
-        return typeId;
+        return template.getId();
     }
     
     public String getName() {
-        return name;
+        return template.getName();
     }
     
     public String getDescription() {
-        return description;
+        return template.getDescription();
     }
     
     public QuestType getType() {
-        return type;
+        return template.getType();
     }
     
     public Map<String, Object> getData() {
-        return data;
+        return template.getData();
     }
     
     public int getXpReward() {
-        return xpReward;
+        return template.getXpReward();
     }
     
     public UUID getPlayerId() {
@@ -83,32 +79,26 @@ public class Quest {
     }
     
     public int getTargetAmount() {
-        switch (type) {
-            case KILL:
-            case COLLECT:
-            case CRAFT:
-            case INTERACT:
-                return (int) data.getOrDefault("amount", 1);
-            case EXPLORE:
-                return 1; // Exploration quests typically just need to visit a location once
-            default:
-                return 1;
-        }
+        return template.getAmount();
     }
     
     public boolean isCompleted() {
         return progress >= getTargetAmount();
     }
     
+    public boolean hasTimeLimit() {
+        return template.hasTimeLimit();
+    }
+    
+    /**
+     * @return Time in milliseconds at which the quest expires, or Long.MAX_VALUE without a time limit
+     */
+    public long getDeadline() {
+        return hasTimeLimit() ? startTime + template.getTimeLimitMillis() : Long.MAX_VALUE;
+    }
+    
     public boolean isExpired() {
-        if (!data.containsKey("timeLimit")) {
-            return false; // No time limit
-        }
-        
-        int timeLimit = (int) data.get("timeLimit"); // in seconds
-        long elapsedTime = (System.currentTimeMillis() - startTime) / 1000;
-        
-        return elapsedTime > timeLimit;
+        return System.currentTimeMillis() > getDeadline();
     }
     
     @Override
@@ -123,4 +113,4 @@ public class Quest {
     public int hashCode() {
         return id.hashCode();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -2,17 +2,13 @@ package me.zpleum.zmystic.quest.models;
 
 import me.zpleum.zmystic.quest.MysticQuest;
 import me.zpleum.zmystic.quest.config.ConfigManager;
-import net.citizensnpcs.api.CitizensAPI;
+import me.zpleum.zmystic.quest.managers.NPCPool;
 import net.citizensnpcs.api.npc.NPC;
-import net.citizensnpcs.api.npc.NPCRegistry;
 import net.citizensnpcs.api.trait.trait.Equipment;
-import net.citizensnpcs.trait.LookClose;
-import net.citizensnpcs.trait.SkinTrait;
-import org.bukkit.Bukkit;
+import net.md_5.bungee.api.chat.BaseComponent;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.scheduler.BukkitTask;
@@ -35,17 +31,19 @@ public class QuestNPC {
     private NPC npc;
     private String name;
     private List<String> questTypes;
-    private boolean interacting = false;
-    private boolean offeringQuest = false;
     private boolean hasNotifiedPlayer = false;
-    private boolean waitingForResponse = false;
     private String questStory = "";
     private BukkitTask moveTask;
-    private int actionBarTaskId = -1;
 
-    // Default skin signature and texture for all black NPC
-    private static final String DEFAULT_SKIN_SIGNATURE = "J4qwQIK5n9V5zNgMBL8vbIgKcm5yTlX1XWlGbokmnhEr3hE7+RKHxUCEYu+7+MeFAE7kuhLUDQjM77CV72S18B8OITbMsWFyfUzYbNZCG95jZBP5vjNE1TRcgGVUOrY+uCeV6DdzYNzSAynXgbHJLfHALNdBjmwWBh6J8jyWDf/p2IP7CsAFZLRdOqfJbv4AUJQsqzuhK15RPx9sBdgNZtZa46XZ5d4TJlEH/cU1LqYlwsUrV4G/+rGmngoHIjUGx8vy9OG+s2lfUpEaEpzgPcJzGYmJ6jLs9PF3fHhO0XTnSh35TtCiZ/MPnKvIIqoLEYSXMw2LxEm1M65fSnkgbS2Q9L1vT5s7YUMFWkBxXpqGqEWEyQTw1y03aLtaI5JAFPX9FGmDAMXnZ0QBMsWJ9oj8LSQ9yv+JDjPUOLDJazPlkwxkoUBCc56TRynKWIJsKGCNY6TVJ5jbPRzljgUaoI5IQ5FnvLcE9BEuWDcHBdkPfKaIyhpGBL6G5kLkDwMycbRHUkpjMGZ8ZGj66TkbBQFwOpuK7xTYGf+RL+fO9iJv6c8DWLI+5SiE9xY4PGGFEJOUy2oSKOJ5L8p+T6uAJYD/pLozsB9gnvyUBOIgK++Vv06L7vx5TQcITfQv5jgkYerP2FQ0TdTmJCdEOcXIuecMSWkSWB5hfVWVVfc="; 
-    private static final String DEFAULT_SKIN_TEXTURE = "eyJ0aW1lc3RhbXAiOjE1OTE3ODY4NTU5MTgsInByb2ZpbGVJZCI6IjQxZDNhYmMyZDc0OTQwMGM5MDkwZDU0MzRkMDM4MzFhIiwicHJvZmlsZU5hbWUiOiJNZWdha2xvb24iLCJzaWduYXR1cmVSZXF1aXJlZCI6dHJ1ZSwidGV4dHVyZXMiOnsiU0tJTiI6eyJ1cmwiOiJodHRwOi8vdGV4dHVyZXMubWluZWNyYWZ0Lm5ldC90ZXh0dXJlLzQxMmY4ODU2N2JkZTU5MmUyM2Y2MzZhZjVkMzFjZjVhM2YzODdlNWNkZjQzMGFkMWQxZGM5YjEzZGJmMmU2YjkifX19";
+    // Encounter progress, stepped by the NPC manager
+    private EncounterState state = EncounterState.APPROACH;
+    private int step = 0;
+    private long nextStepTick = 0;
+    private long despawnTick = 0;
+
+    // Action bar frame last sent to the target player, and when
+    private BaseComponent[] shownFrame;
+    private long shownTick = 0;
 
     // Store a map of frozen player data - UUID -> Original location
     private final Map<UUID, Location> frozenPlayers = new HashMap<>();
@@ -76,48 +74,11 @@ public class QuestNPC {
 
     public boolean spawn() {
         try {
-            // Get Citizens NPC registry
-            NPCRegistry registry = CitizensAPI.getNPCRegistry();
-
-            // Create NPC with empty display name to avoid showing a name tag
-            npc = registry.createNPC(EntityType.PLAYER, "");
-
-            // Set the UUID so we can identify this NPC later
-            this.uuid = npc.getUniqueId();
+            // Take a ready NPC of this type from the pool, skin and traits are already set up
+            npc = plugin.getNPCManager().getNPCPool().checkout(npcType, name);
 
             // Configure NPC
-            npc.data().set("zmystic-quest-npc", targetPlayer.toString());
-            npc.data().set("zmystic-quest-npc-name", name); // Store the actual name internally
-
-            // Hide name tag explicitly using all available methods
-            npc.setUseMinecraftAI(false);
-            npc.setProtected(true);
-            npc.data().setPersistent(NPC.Metadata.NAMEPLATE_VISIBLE, false);
-            npc.data().setPersistent("nameplate-visible", false);
-
-            // Set black skin from config
-            FileConfiguration config = plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG);
-            String skinSignature = config.getString("npc.skin.signature", "");
-            String skinTexture = config.getString("npc.skin.texture", "");
-
-            // Validate skin data by checking if they're proper Base64 strings
-            // If not valid or empty, use defaults
-            if (!isValidBase64(skinSignature) || !isValidBase64(skinTexture) || 
-                skinSignature.isEmpty() || skinTexture.isEmpty()) {
-                plugin.getLogger().info("Using default skin as config values are invalid or empty");
-                skinSignature = DEFAULT_SKIN_SIGNATURE;
-                skinTexture = DEFAULT_SKIN_TEXTURE;
-            }
-
-            // Apply skin
-            SkinTrait skinTrait = npc.getOrAddTrait(SkinTrait.class);
-            skinTrait.setSkinPersistent("mystery", skinSignature, skinTexture);
-
-            // Make NPC look at players
-            LookClose lookCloseTrait = npc.getOrAddTrait(LookClose.class);
-            lookCloseTrait.lookClose(true);
-            lookCloseTrait.setRange(30); // Look at target from up to 30 blocks away
-            lookCloseTrait.setRealisticLooking(true);
+            npc.data().set(NPCPool.QUEST_NPC_KEY, targetPlayer.toString());
 
             // Spawn the NPC at the location
             npc.spawn(location);
@@ -130,32 +91,16 @@ public class QuestNPC {
         }
     }
 
-    /**
-     * Check if a string is valid Base64 encoded data
-     * @param str The string to check
-     * @return true if valid Base64, false otherwise
-     */
-    private boolean isValidBase64(String str) {
-        if (str == null || str.isEmpty()) {
-            return false;
-        }
-        
-        try {
-            // Check if string contains only valid Base64 characters
-            return str.matches("^[A-Za-z0-9+/]*={0,2}$");
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     public void despawn() {
         if (moveTask != null) {
             moveTask.cancel();
             moveTask = null;
         }
 
-        if (npc != null && npc.isSpawned()) {
-            npc.destroy();
+        // Hand the NPC back to the pool, it may be spawned for another encounter right away
+        if (npc != null) {
+            plugin.getNPCManager().getNPCPool().release(npcType, npc);
+            npc = null;
         }
     }
 
@@ -285,47 +230,64 @@ public class QuestNPC {
         return npcType;
     }
 
-    public boolean isInteracting() {
-        return interacting;
+    public EncounterState getState() {
+        return state;
     }
 
-    public void setInteracting(boolean interacting) {
-        this.interacting = interacting;
+    /**
+     * Moves the encounter to a new state, starting again from its first step
+     */
+    public void setState(EncounterState state) {
+        this.state = state;
+        this.step = 0;
     }
 
-    public boolean isOfferingQuest() {
-        return offeringQuest;
+    public int getStep() {
+        return step;
     }
 
-    public void setOfferingQuest(boolean offeringQuest) {
-        this.offeringQuest = offeringQuest;
+    public void setStep(int step) {
+        this.step = step;
     }
 
-    public boolean hasNotifiedPlayer() {
-        return hasNotifiedPlayer;
+    public long getNextStepTick() {
+        return nextStepTick;
     }
 
-    public void setHasNotifiedPlayer(boolean hasNotifiedPlayer) {
-        this.hasNotifiedPlayer = hasNotifiedPlayer;
+    public void setNextStepTick(long nextStepTick) {
+        this.nextStepTick = nextStepTick;
     }
 
-    public boolean isWaitingForResponse() {
-        return waitingForResponse;
+    public BaseComponent[] getShownFrame() {
+        return shownFrame;
     }
 
-    public void setWaitingForResponse(boolean waitingForResponse) {
-        this.waitingForResponse = waitingForResponse;
+    public long getShownTick() {
+        return shownTick;
     }
 
-    public String getQuestStory() {
-        return questStory;
+    public void setShownFrame(BaseComponent[] shownFrame, long shownTick) {
+        this.shownFrame = shownFrame;
+        this.shownTick = shownTick;
     }
 
-    public int getActionBarTaskId() {
-        return actionBarTaskId;
+    public long getDespawnTick() {
+        return despawnTick;
     }
 
-    public void setActionBarTaskId(int actionBarTaskId) {
-        this.actionBarTaskId = actionBarTaskId;
+    public void setDespawnTick(long despawnTick) {
+        this.despawnTick = despawnTick;
+    }
+
+    public boolean hasNotifiedPlayer() {
+        return hasNotifiedPlayer;
+    }
+
+    public void setHasNotifiedPlayer(boolean hasNotifiedPlayer) {
+        this.hasNotifiedPlayer = hasNotifiedPlayer;
+    }
+
+    public String getQuestStory() {
+        return questStory;
     }
 } 
\ No newline at end of file
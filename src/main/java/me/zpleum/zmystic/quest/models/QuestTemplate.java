@@ -0,0 +1,247 @@
+package me.zpleum.zmystic.quest.models;
+
+import org.bukkit.Material;
+import org.bukkit.StructureType;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Immutable definition of a quest from quests.yml, compiled once and shared by every quest
+ * handed out from it. Targets, amounts and time limits are resolved up front so events
+ * never have to look them up in the data map.
+ */
+public final class QuestTemplate {
+
+    private final String id;
+    private final String name;
+    private final String description;
+    private final QuestType type;
+    private final Map<String, Object> data;
+    private final int xpReward;
+
+    // Resolved from data
+    private final int amount;
+    private final long timeLimitMillis;
+    private final Object target;
+    private final String biome;
+    private final StructureType structure;
+
+    private QuestTemplate(String id, String name, String description, QuestType type,
+                          Map<String, Object> data, int xpReward) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.type = type;
+        this.data = Collections.unmodifiableMap(new HashMap<>(data));
+        this.xpReward = xpReward;
+
+        this.amount = type == QuestType.EXPLORE ? 1 : intValue(data.get("amount"), 1);
+
+        Object timeLimit = data.get("timeLimit"); // in seconds
+        this.timeLimitMillis = timeLimit instanceof Number ? ((Number) timeLimit).longValue() * 1000L : -1L;
+
+        this.target = resolveTarget(type, data);
+
+        String biomeName = stringValue(data.get("biome"));
+        this.biome = biomeName.isEmpty() ? null : biomeName.toUpperCase();
+
+        String structureName = stringValue(data.get("structure"));
+        this.structure = structureName.isEmpty() ? null : StructureType.getStructureTypes().get(structureName.toLowerCase());
+    }
+
+    /**
+     * Builds a template from a stored definition, used for quests whose definition
+     * no longer matches quests.yml
+     */
+    public static QuestTemplate of(String id, String name, String description, QuestType type,
+                                   Map<String, Object> data, int xpReward) {
+        return new QuestTemplate(id, name, description, type, data, xpReward);
+    }
+
+    /**
+     * Compiles every quest defined in quests.yml, skipping invalid ones
+     */
+    public static Map<String, QuestTemplate> compile(FileConfiguration questsConfig, Logger logger) {
+        Map<String, QuestTemplate> templates = new LinkedHashMap<>();
+
+        for (String questTypeId : questsConfig.getKeys(false)) {
+            QuestType questType;
+            try {
+                questType = QuestType.valueOf(questsConfig.getString(questTypeId + ".type"));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                logger.warning("Invalid quest type for quest: " + questTypeId);
+                continue;
+            }
+
+            String name = questsConfig.getString(questTypeId + ".name");
+            String description = questsConfig.getString(questTypeId + ".description");
+            int xpReward = questsConfig.getInt(questTypeId + ".xp");
+
+            // Get specific data based on quest type
+            Map<String, Object> questData = new HashMap<>();
+
+            switch (questType) {
+                case KILL:
+                    questData.put("entity", questsConfig.getString(questTypeId + ".entity"));
+                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount"));
+                    break;
+
+                case COLLECT:
+                    questData.put("item", questsConfig.getString(questTypeId + ".item"));
+                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount"));
+                    break;
+
+                case EXPLORE:
+                    questData.put("biome", questsConfig.getString(questTypeId + ".biome", ""));
+                    questData.put("structure", questsConfig.getString(questTypeId + ".structure", ""));
+                    break;
+
+                case CRAFT:
+                    questData.put("item", questsConfig.getString(questTypeId + ".item"));
+                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount", 1));
+                    break;
+
+                case INTERACT:
+                    questData.put("entity", questsConfig.getString(questTypeId + ".entity"));
+                    questData.put("interaction", questsConfig.getString(questTypeId + ".interaction"));
+                    questData.put("amount", questsConfig.getInt(questTypeId + ".amount", 1));
+                    break;
+            }
+
+            // Optional time limit
+            if (questsConfig.contains(questTypeId + ".time-limit")) {
+                questData.put("timeLimit", questsConfig.getInt(questTypeId + ".time-limit"));
+            }
+
+            templates.put(questTypeId, new QuestTemplate(questTypeId, name, description, questType, questData, xpReward));
+        }
+
+        return Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * Checks whether a stored quest definition is the same as this template
+     */
+    public boolean hasDefinition(QuestType type, String name, String description, Map<String, Object> data, int xpReward) {
+        return this.type == type
+                && this.xpReward == xpReward
+                && Objects.equals(this.name, name)
+                && Objects.equals(this.description, description)
+                && this.data.equals(data);
+    }
+
+    /**
+     * Builds the key INTERACT quests are matched by
+     */
+    public static String interactKey(String entity, String interaction) {
+        return entity.toUpperCase() + ":" + interaction.toUpperCase();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public QuestType getType() {
+        return type;
+    }
+
+    /**
+     * Raw quest data as stored in player data, read-only
+     */
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    public int getXpReward() {
+        return xpReward;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public boolean hasTimeLimit() {
+        return timeLimitMillis >= 0;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * What events have to match to progress the quest: an EntityType for KILL, a Material for
+     * CRAFT and COLLECT, an interact key for INTERACT and the quest type itself for EXPLORE.
+     * Unknown entities and items resolve to their upper-case name so they never match.
+     */
+    public Object getTarget() {
+        return target;
+    }
+
+    /**
+     * @return Upper-case biome name EXPLORE quests require, or null for any biome
+     */
+    public String getBiome() {
+        return biome;
+    }
+
+    /**
+     * @return Structure EXPLORE quests require, or null for none
+     */
+    public StructureType getStructure() {
+        return structure;
+    }
+
+    /**
+     * @return Whether a structure is required but its name did not resolve
+     */
+    public boolean hasUnknownStructure() {
+        return structure == null && !stringValue(data.get("structure")).isEmpty();
+    }
+
+    private static Object resolveTarget(QuestType type, Map<String, Object> data) {
+        switch (type) {
+            case KILL: {
+                String entity = String.valueOf(data.get("entity")).toUpperCase();
+                try {
+                    return EntityType.valueOf(entity);
+                } catch (IllegalArgumentException e) {
+                    return entity;
+                }
+            }
+            case CRAFT:
+            case COLLECT: {
+                String item = String.valueOf(data.get("item")).toUpperCase();
+                Material material = Material.getMaterial(item);
+                return material != null ? material : item;
+            }
+            case INTERACT:
+                return interactKey(String.valueOf(data.get("entity")), String.valueOf(data.get("interaction")));
+            default:
+                // EXPLORE quests are checked against the player's location, not an event target
+                return type;
+        }
+    }
+
+    private static int intValue(Object value, int defaultValue) {
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    private static String stringValue(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
@@ -0,0 +1,136 @@
+package me.zpleum.zmystic.quest.models;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Reward tiers from rewards.yml, compiled once and sorted by XP required.
+ * A player's unlocked tiers are kept as a bitset over the tier indexes of this table.
+ */
+public final class RewardTierTable {
+
+    public static final int MAX_TIERS = Long.SIZE;
+
+    private final String[] names;
+    private final int[] xpRequired;
+    private final List<List<String>> commands;
+    private final Map<String, Integer> indexByName;
+
+    private RewardTierTable(String[] names, int[] xpRequired, List<List<String>> commands) {
+        this.names = names;
+        this.xpRequired = xpRequired;
+        this.commands = commands;
+        this.indexByName = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indexByName.put(names[i], i);
+        }
+    }
+
+    public static RewardTierTable compile(FileConfiguration rewardsConfig, Logger logger) {
+        ConfigurationSection rewardsSection = rewardsConfig.getConfigurationSection("rewards");
+        List<String> tiers = rewardsSection != null ? new ArrayList<>(rewardsSection.getKeys(false)) : new ArrayList<>();
+
+        // Sort tiers by XP required, read once per tier rather than once per comparison
+        Map<String, Integer> required = new HashMap<>();
+        for (String tier : tiers) {
+            required.put(tier, rewardsSection.getInt(tier + ".xp-required"));
+        }
+        tiers.sort(Comparator.comparingInt(required::get));
+
+        if (tiers.size() > MAX_TIERS) {
+            logger.warning("Only the first " + MAX_TIERS + " reward tiers are used, " + (tiers.size() - MAX_TIERS) + " were ignored");
+            tiers = tiers.subList(0, MAX_TIERS);
+        }
+
+        String[] names = new String[tiers.size()];
+        int[] xpRequired = new int[tiers.size()];
+        List<List<String>> commands = new ArrayList<>(tiers.size());
+        for (int i = 0; i < tiers.size(); i++) {
+            String tier = tiers.get(i);
+            names[i] = tier;
+            xpRequired[i] = required.get(tier);
+            commands.add(Collections.unmodifiableList(rewardsSection.getStringList(tier + ".commands")));
+        }
+
+        return new RewardTierTable(names, xpRequired, commands);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public int getXpRequired(int index) {
+        return xpRequired[index];
+    }
+
+    public List<String> getCommands(int index) {
+        return commands.get(index);
+    }
+
+    /**
+     * Binary searches the thresholds for the tiers reachable with an amount of XP
+     * @return Number of tiers requiring at most this much XP, which is also the index of the first tier above it
+     */
+    public int countReached(int xp) {
+        int low = 0;
+        int high = xpRequired.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xpRequired[mid] <= xp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Converts tier names into a bitset of this table, ignoring tiers that no longer exist
+     */
+    public long toBits(Collection<String> tierNames) {
+        long bits = 0L;
+        for (String tierName : tierNames) {
+            Integer index = indexByName.get(tierName);
+            if (index != null) {
+                bits |= 1L << index;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Converts a bitset of this table back into tier names
+     */
+    public Set<String> toNames(long bits) {
+        Set<String> tierNames = new LinkedHashSet<>();
+        for (int i = 0; i < names.length; i++) {
+            if ((bits & (1L << i)) != 0) {
+                tierNames.add(names[i]);
+            }
+        }
+        return tierNames;
+    }
+
+    /**
+     * Translates a bitset built against another table, used after rewards.yml is reloaded
+     */
+    public long remap(long bits, RewardTierTable previous) {
+        return previous == this ? bits : toBits(previous.toNames(bits));
+    }
+}
@@ -0,0 +1,433 @@
+package me.zpleum.zmystic.quest.storage;
+
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.configuration.InvalidConfigurationException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Stores each player in playerdata/&lt;uuid&gt;.dat using a compact versioned binary format.
+ * Quests that still match their template in quests.yml are written as a template id,
+ * progress and start time only; the rest is rebuilt from the template when loading.
+ * <p>
+ * Legacy &lt;uuid&gt;.yml files are read transparently and replaced by a .dat file the
+ * first time the player is saved, or in bulk by {@link #convertLegacyFiles()}.
+ */
+public class BinaryPlayerDataStore implements PlayerDataStore {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int SYMBOLS_VERSION = 1;
+    private static final int CONVERT_BATCH_SIZE = 500;
+
+    // Quest encodings
+    private static final int QUEST_TEMPLATE = 0;
+    private static final int QUEST_INLINE = 1;
+
+    private final File directory;
+    private final File symbolsFile;
+    private final QuestTemplateResolver templates;
+    private final YamlPlayerDataStore legacyStore;
+    private final Logger logger;
+
+    // Interned quest type ids and reward tier names, shared by every player file
+    private final SymbolTable questTypes = new SymbolTable();
+    private final SymbolTable rewardTiers = new SymbolTable();
+    private boolean symbolsLoaded = false;
+    private boolean symbolsDirty = false; // Symbols interned since symbols.dat was last written
+
+    public BinaryPlayerDataStore(File directory, QuestTemplateResolver templates, Logger logger) {
+        this.directory = directory;
+        this.symbolsFile = new File(directory, "symbols.dat");
+        this.templates = templates;
+        this.legacyStore = new YamlPlayerDataStore(directory, logger);
+        this.logger = logger;
+    }
+
+    @Override
+    public synchronized PlayerSnapshot load(UUID playerId) throws StorageException {
+        File playerFile = getPlayerFile(playerId);
+        if (!playerFile.exists()) {
+            return legacyStore.load(playerId);
+        }
+
+        loadSymbols();
+        try {
+            return read(playerId, Files.readAllBytes(playerFile.toPath()));
+        } catch (IOException e) {
+            throw new StorageException("Could not read " + playerFile.getName(), e);
+        }
+    }
+
+    @Override
+    public synchronized void save(List<PlayerSnapshot> snapshots) throws StorageException {
+        loadSymbols();
+        ensureDirectory();
+
+        int questTypeCount = questTypes.size();
+        int rewardTierCount = rewardTiers.size();
+        List<byte[]> encoded = new ArrayList<>(snapshots.size());
+        for (PlayerSnapshot snapshot : snapshots) {
+            encoded.add(isEmpty(snapshot) ? null : write(snapshot));
+        }
+
+        // Player files may reference new symbols, so those must reach disk first,
+        // including ones interned by an earlier batch whose symbols could not be written
+        if (questTypes.size() != questTypeCount || rewardTiers.size() != rewardTierCount) {
+            symbolsDirty = true;
+        }
+        if (symbolsDirty) {
+            saveSymbols();
+        }
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            UUID playerId = snapshots.get(i).getPlayerId();
+            File playerFile = getPlayerFile(playerId);
+
+            if (encoded.get(i) == null) {
+                // Players without any data do not get a file
+                playerFile.delete();
+            } else {
+                writeAtomically(playerFile, encoded.get(i), false);
+            }
+            legacyStore.delete(playerId);
+        }
+    }
+
+    @Override
+    public synchronized void saveXP(UUID playerId, int xp) throws StorageException {
+        PlayerSnapshot snapshot = load(playerId);
+        if (snapshot == null && xp == 0) return;
+
+        if (snapshot == null) {
+            snapshot = new PlayerSnapshot(playerId, Collections.<PlayerSnapshot.QuestEntry>emptyList(), xp,
+                    Collections.emptySet(), 0L);
+        } else {
+            snapshot = new PlayerSnapshot(playerId, snapshot.getQuests(), xp, snapshot.getUnlockedRewards(),
+                    snapshot.getJournalSeq());
+        }
+        save(Collections.singletonList(snapshot));
+    }
+
+    @Override
+    public synchronized void scanXP(ObjIntConsumer<UUID> consumer) throws StorageException {
+        for (UUID playerId : listPlayers()) {
+            File playerFile = getPlayerFile(playerId);
+            if (!playerFile.exists()) {
+                PlayerSnapshot snapshot = legacyStore.load(playerId);
+                if (snapshot != null) {
+                    consumer.accept(playerId, snapshot.getXp());
+                }
+                continue;
+            }
+
+            // XP sits right after the header, the quests do not need to be decoded
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(playerFile), 32))) {
+                in.readUnsignedByte();
+                in.readLong();
+                in.readLong();
+                consumer.accept(playerId, in.readInt());
+            } catch (IOException e) {
+                throw new StorageException("Could not read " + playerFile.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Rewrites every legacy YAML player file in the binary format
+     * @return The number of players converted
+     */
+    public synchronized int convertLegacyFiles() throws StorageException {
+        List<UUID> players = legacyStore.listPlayers();
+        if (players.isEmpty()) return 0;
+
+        logger.info("Converting " + players.size() + " player data files to the binary format...");
+        List<PlayerSnapshot> batch = new ArrayList<>(CONVERT_BATCH_SIZE);
+        int converted = 0;
+
+        for (UUID playerId : players) {
+            // A .dat file is always newer than a leftover .yml
+            if (getPlayerFile(playerId).exists()) {
+                legacyStore.delete(playerId);
+                continue;
+            }
+
+            PlayerSnapshot snapshot = legacyStore.load(playerId);
+            if (snapshot == null) continue;
+
+            batch.add(snapshot);
+            if (batch.size() >= CONVERT_BATCH_SIZE) {
+                converted += batch.size();
+                save(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            converted += batch.size();
+            save(batch);
+        }
+
+        logger.info("Converted " + converted + " player data files.");
+        return converted;
+    }
+
+    /**
+     * Lists every player that has a data file in either format
+     */
+    public synchronized List<UUID> listPlayers() {
+        Set<UUID> players = new LinkedHashSet<>(legacyStore.listPlayers());
+        File[] playerFiles = directory.listFiles((dir, name) -> name.endsWith(".dat") && !name.equals(symbolsFile.getName()));
+        if (playerFiles != null) {
+            for (File file : playerFiles) {
+                String fileName = file.getName();
+                try {
+                    players.add(UUID.fromString(fileName.substring(0, fileName.length() - 4)));
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid player data file name: " + fileName);
+                }
+            }
+        }
+        return new ArrayList<>(players);
+    }
+
+    /**
+     * Reads the reward unlock dates of a player that is still in the legacy format.
+     * The binary format does not keep unlock dates.
+     */
+    public synchronized Map<String, Long> loadRewardUnlocks(UUID playerId) {
+        return legacyStore.loadRewardUnlocks(playerId);
+    }
+
+    @Override
+    public void close() {
+        // Nothing is held open between calls
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private PlayerSnapshot read(UUID playerId, byte[] bytes) throws IOException, StorageException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+        int version = in.readUnsignedByte();
+        if (version > FORMAT_VERSION) {
+            throw new StorageException("Player file of " + playerId + " was written by a newer version (format " + version + ")");
+        }
+
+        UUID storedId = new UUID(in.readLong(), in.readLong());
+        if (!storedId.equals(playerId)) {
+            throw new StorageException("Player file of " + playerId + " belongs to " + storedId);
+        }
+
+        int xp = in.readInt();
+        long journalSeq = in.readLong();
+
+        int questCount = in.readUnsignedShort();
+        List<PlayerSnapshot.QuestEntry> quests = new ArrayList<>(questCount);
+        for (int i = 0; i < questCount; i++) {
+            PlayerSnapshot.QuestEntry quest = readQuest(in);
+            if (quest != null) {
+                quests.add(quest);
+            }
+        }
+
+        long[] words = new long[in.readUnsignedByte()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        BitSet rewardBits = BitSet.valueOf(words);
+        Set<String> rewards = new LinkedHashSet<>();
+        for (int id = rewardBits.nextSetBit(0); id >= 0; id = rewardBits.nextSetBit(id + 1)) {
+            String tier = rewardTiers.lookup(id);
+            if (tier != null) {
+                rewards.add(tier);
+            }
+        }
+
+        return new PlayerSnapshot(playerId, quests, xp, rewards, journalSeq);
+    }
+
+    private PlayerSnapshot.QuestEntry readQuest(DataInputStream in) throws IOException {
+        UUID questId = new UUID(in.readLong(), in.readLong());
+        int encoding = in.readUnsignedByte();
+        String typeId = questTypes.lookup(in.readInt());
+        int progress = in.readInt();
+        long startTime = in.readLong();
+
+        if (encoding == QUEST_INLINE) {
+            String name = in.readUTF();
+            String description = in.readUTF();
+            QuestType questType = QuestType.values()[in.readUnsignedByte()];
+            String data = in.readUTF();
+            int xpReward = in.readInt();
+
+            try {
+                return new PlayerSnapshot.QuestEntry(questId, typeId, name, description, questType,
+                        QuestDataCodec.decode(data), xpReward, progress, startTime);
+            } catch (InvalidConfigurationException e) {
+                logger.warning("Failed to load quest: " + e.getMessage());
+                return null;
+            }
+        }
+
+        PlayerSnapshot.QuestEntry quest = typeId != null ? templates.resolve(questId, typeId, progress, startTime) : null;
+        if (quest == null) {
+            logger.warning("Failed to load quest: unknown quest type " + typeId);
+        }
+        return quest;
+    }
+
+    private byte[] write(PlayerSnapshot snapshot) throws StorageException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + snapshot.getQuests().size() * 40);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(snapshot.getPlayerId().getMostSignificantBits());
+            out.writeLong(snapshot.getPlayerId().getLeastSignificantBits());
+            out.writeInt(snapshot.getXp());
+            out.writeLong(snapshot.getJournalSeq());
+
+            out.writeShort(snapshot.getQuests().size());
+            for (PlayerSnapshot.QuestEntry quest : snapshot.getQuests()) {
+                writeQuest(out, quest);
+            }
+
+            BitSet rewardBits = new BitSet();
+            for (String tier : snapshot.getUnlockedRewards()) {
+                rewardBits.set(rewardTiers.intern(tier));
+            }
+            long[] words = rewardBits.toLongArray();
+            out.writeByte(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Could not encode player " + snapshot.getPlayerId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeQuest(DataOutputStream out, PlayerSnapshot.QuestEntry quest) throws IOException {
+        // Quests whose definition changed since they were handed out keep their own copy
+        PlayerSnapshot.QuestEntry template = templates.resolve(quest.getId(), quest.getTypeId(), quest.getProgress(), quest.getStartTime());
+        boolean inline = template == null || !sameDefinition(template, quest);
+
+        out.writeLong(quest.getId().getMostSignificantBits());
+        out.writeLong(quest.getId().getLeastSignificantBits());
+        out.writeByte(inline ? QUEST_INLINE : QUEST_TEMPLATE);
+        out.writeInt(questTypes.intern(quest.getTypeId()));
+        out.writeInt(quest.getProgress());
+        out.writeLong(quest.getStartTime());
+
+        if (inline) {
+            out.writeUTF(quest.getName() != null ? quest.getName() : "");
+            out.writeUTF(quest.getDescription() != null ? quest.getDescription() : "");
+            out.writeByte(quest.getQuestType().ordinal());
+            out.writeUTF(QuestDataCodec.encode(quest.getData()));
+            out.writeInt(quest.getXpReward());
+        }
+    }
+
+    private static boolean sameDefinition(PlayerSnapshot.QuestEntry template, PlayerSnapshot.QuestEntry quest) {
+        return template.getQuestType() == quest.getQuestType()
+                && template.getXpReward() == quest.getXpReward()
+                && Objects.equals(template.getName(), quest.getName())
+                && Objects.equals(template.getDescription(), quest.getDescription())
+                && template.getData().equals(quest.getData());
+    }
+
+    private static boolean isEmpty(PlayerSnapshot snapshot) {
+        return snapshot.getXp() == 0 && snapshot.getQuests().isEmpty() && snapshot.getUnlockedRewards().isEmpty();
+    }
+
+    private void loadSymbols() throws StorageException {
+        if (symbolsLoaded) return;
+
+        if (symbolsFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(symbolsFile)))) {
+                int version = in.readUnsignedByte();
+                if (version > SYMBOLS_VERSION) {
+                    throw new StorageException(symbolsFile.getName() + " was written by a newer version");
+                }
+                questTypes.read(in);
+                rewardTiers.read(in);
+            } catch (IOException e) {
+                throw new StorageException("Could not read " + symbolsFile.getName(), e);
+            }
+        }
+        symbolsLoaded = true;
+    }
+
+    private void saveSymbols() throws StorageException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(SYMBOLS_VERSION);
+            questTypes.write(out);
+            rewardTiers.write(out);
+        } catch (IOException e) {
+            throw new StorageException("Could not encode " + symbolsFile.getName(), e);
+        }
+        // Losing this file would make every player file unreadable
+        writeAtomically(symbolsFile, bytes.toByteArray(), true);
+        symbolsDirty = false;
+    }
+
+    /**
+     * Writes to a temporary file first so a crash never leaves a half-written file behind
+     */
+    private void writeAtomically(File file, byte[] data, boolean sync) throws StorageException {
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(tempFile);
+                 BufferedOutputStream buffered = new BufferedOutputStream(out)) {
+                buffered.write(data);
+                buffered.flush();
+                if (sync) {
+                    out.getFD().sync();
+                }
+            }
+
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new StorageException("Could not save " + file.getName(), e);
+        }
+    }
+
+    private File getPlayerFile(UUID playerId) {
+        return new File(directory, playerId.toString() + ".dat");
+    }
+
+    private void ensureDirectory() {
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+    }
+}
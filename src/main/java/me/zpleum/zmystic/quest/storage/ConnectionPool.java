@@ -0,0 +1,103 @@
+package me.zpleum.zmystic.quest.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed-size pool of JDBC connections for the embedded database
+ */
+class ConnectionPool {
+
+    private static final long BORROW_TIMEOUT_SECONDS = 10;
+
+    private final String url;
+    private final List<String> initStatements;
+    private final BlockingQueue<Connection> idle;
+    private volatile boolean closed = false;
+
+    ConnectionPool(String url, int size, List<String> initStatements) throws SQLException {
+        this.url = url;
+        this.initStatements = initStatements;
+        this.idle = new ArrayBlockingQueue<>(size);
+
+        for (int i = 0; i < size; i++) {
+            idle.add(open());
+        }
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : initStatements) {
+                statement.execute(sql);
+            }
+        }
+        return connection;
+    }
+
+    Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        Connection connection;
+        try {
+            connection = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        if (connection == null) {
+            throw new SQLException("Timed out waiting for a database connection");
+        }
+
+        // Replace connections that died while idle
+        if (connection.isClosed()) {
+            connection = open();
+        }
+        return connection;
+    }
+
+    void release(Connection connection) {
+        if (closed) {
+            closeQuietly(connection);
+            return;
+        }
+
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            try {
+                connection = open();
+            } catch (SQLException reopenError) {
+                return;
+            }
+        }
+        idle.offer(connection);
+    }
+
+    void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Already unusable
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package me.zpleum.zmystic.quest.storage;
+
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.configuration.InvalidConfigurationException;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Stores player data in an embedded SQLite database file. The driver ships with
+ * Spigot, so no external server or extra dependency is needed.
+ */
+public class JdbcPlayerDataStore implements PlayerDataStore {
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS mq_players ("
+                    + "uuid CHAR(36) PRIMARY KEY, "
+                    + "mystic_xp INTEGER NOT NULL DEFAULT 0, "
+                    + "journal_seq BIGINT NOT NULL DEFAULT 0)",
+            "CREATE INDEX IF NOT EXISTS idx_mq_players_xp ON mq_players (mystic_xp)",
+            "CREATE TABLE IF NOT EXISTS mq_quests ("
+                    + "quest_id CHAR(36) PRIMARY KEY, "
+                    + "player_uuid CHAR(36) NOT NULL, "
+                    + "type_id VARCHAR(64) NOT NULL, "
+                    + "name VARCHAR(128), "
+                    + "description VARCHAR(255), "
+                    + "quest_type VARCHAR(16) NOT NULL, "
+                    + "quest_data TEXT, "
+                    + "xp_reward INTEGER NOT NULL, "
+                    + "progress INTEGER NOT NULL, "
+                    + "start_time BIGINT NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_mq_quests_player ON mq_quests (player_uuid)",
+            "CREATE TABLE IF NOT EXISTS mq_rewards ("
+                    + "player_uuid CHAR(36) NOT NULL, "
+                    + "tier VARCHAR(64) NOT NULL, "
+                    + "unlocked_date BIGINT NOT NULL, "
+                    + "PRIMARY KEY (player_uuid, tier))"
+    };
+
+    private static final String UPSERT_PLAYER = "INSERT INTO mq_players (uuid, mystic_xp, journal_seq) VALUES (?, ?, ?) "
+            + "ON CONFLICT(uuid) DO UPDATE SET mystic_xp = excluded.mystic_xp, journal_seq = excluded.journal_seq";
+    private static final String UPSERT_XP = "INSERT INTO mq_players (uuid, mystic_xp) VALUES (?, ?) "
+            + "ON CONFLICT(uuid) DO UPDATE SET mystic_xp = excluded.mystic_xp";
+    private static final String DELETE_QUESTS = "DELETE FROM mq_quests WHERE player_uuid = ?";
+    private static final String INSERT_QUEST = "INSERT INTO mq_quests (quest_id, player_uuid, type_id, name, description, "
+            + "quest_type, quest_data, xp_reward, progress, start_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_PLAYER = "SELECT mystic_xp, journal_seq FROM mq_players WHERE uuid = ?";
+    private static final String SELECT_QUESTS = "SELECT quest_id, type_id, name, description, quest_type, quest_data, "
+            + "xp_reward, progress, start_time FROM mq_quests WHERE player_uuid = ?";
+    private static final String SELECT_ALL_XP = "SELECT uuid, mystic_xp FROM mq_players WHERE mystic_xp > 0";
+    private static final String SELECT_REWARDS = "SELECT tier FROM mq_rewards WHERE player_uuid = ?";
+    private static final String UPSERT_REWARD = "INSERT INTO mq_rewards (player_uuid, tier, unlocked_date) VALUES (?, ?, ?) "
+            + "ON CONFLICT(player_uuid, tier) DO UPDATE SET unlocked_date = excluded.unlocked_date";
+    // Tiers unlocked earlier keep their original date
+    private static final String INSERT_REWARD = "INSERT INTO mq_rewards (player_uuid, tier, unlocked_date) VALUES (?, ?, ?) "
+            + "ON CONFLICT(player_uuid, tier) DO NOTHING";
+
+    private final ConnectionPool pool;
+    private final Logger logger;
+
+    public JdbcPlayerDataStore(File databaseFile, int poolSize, Logger logger) throws StorageException {
+        this.logger = logger;
+
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new StorageException("SQLite driver not found on this server", e);
+        }
+
+        try {
+            this.pool = new ConnectionPool("jdbc:sqlite:" + databaseFile.getAbsolutePath(), Math.max(1, poolSize), List.of(
+                    "PRAGMA journal_mode=WAL",
+                    "PRAGMA synchronous=NORMAL",
+                    "PRAGMA busy_timeout=5000"
+            ));
+        } catch (SQLException e) {
+            throw new StorageException("Could not open " + databaseFile.getName(), e);
+        }
+
+        createSchema();
+    }
+
+    private void createSchema() throws StorageException {
+        Connection connection = borrow();
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : SCHEMA) {
+                statement.execute(sql);
+            }
+
+            // Databases created before the progress journal existed lack this column
+            try (ResultSet columns = connection.getMetaData().getColumns(null, null, "mq_players", "journal_seq")) {
+                if (!columns.next()) {
+                    statement.execute("ALTER TABLE mq_players ADD COLUMN journal_seq BIGINT NOT NULL DEFAULT 0");
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not create database tables", e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public PlayerSnapshot load(UUID playerId) throws StorageException {
+        Connection connection = borrow();
+        try {
+            String uuid = playerId.toString();
+            boolean found = false;
+            int xp = 0;
+            long journalSeq = 0;
+
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_PLAYER)) {
+                statement.setString(1, uuid);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (result.next()) {
+                        found = true;
+                        xp = result.getInt(1);
+                        journalSeq = result.getLong(2);
+                    }
+                }
+            }
+
+            List<PlayerSnapshot.QuestEntry> quests = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_QUESTS)) {
+                statement.setString(1, uuid);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        found = true;
+                        try {
+                            quests.add(new PlayerSnapshot.QuestEntry(
+                                    UUID.fromString(result.getString("quest_id")),
+                                    result.getString("type_id"),
+                                    result.getString("name"),
+                                    result.getString("description"),
+                                    QuestType.valueOf(result.getString("quest_type")),
+                                    QuestDataCodec.decode(result.getString("quest_data")),
+                                    result.getInt("xp_reward"),
+                                    result.getInt("progress"),
+                                    result.getLong("start_time")
+                            ));
+                        } catch (IllegalArgumentException | InvalidConfigurationException e) {
+                            logger.warning("Failed to load quest: " + e.getMessage());
+                        }
+                    }
+                }
+            }
+
+            Set<String> rewards = new LinkedHashSet<>();
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_REWARDS)) {
+                statement.setString(1, uuid);
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        found = true;
+                        rewards.add(result.getString(1));
+                    }
+                }
+            }
+
+            return found ? new PlayerSnapshot(playerId, quests, xp, rewards, journalSeq) : null;
+        } catch (SQLException e) {
+            throw new StorageException("Could not load player " + playerId, e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public void save(List<PlayerSnapshot> snapshots) throws StorageException {
+        if (snapshots.isEmpty()) return;
+
+        Connection connection = borrow();
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement upsertPlayer = connection.prepareStatement(UPSERT_PLAYER);
+                 PreparedStatement deleteQuests = connection.prepareStatement(DELETE_QUESTS);
+                 PreparedStatement insertQuest = connection.prepareStatement(INSERT_QUEST);
+                 PreparedStatement insertReward = connection.prepareStatement(INSERT_REWARD)) {
+
+                long now = System.currentTimeMillis();
+                for (PlayerSnapshot snapshot : snapshots) {
+                    String uuid = snapshot.getPlayerId().toString();
+
+                    upsertPlayer.setString(1, uuid);
+                    upsertPlayer.setInt(2, snapshot.getXp());
+                    upsertPlayer.setLong(3, snapshot.getJournalSeq());
+                    upsertPlayer.addBatch();
+
+                    deleteQuests.setString(1, uuid);
+                    deleteQuests.addBatch();
+
+                    for (PlayerSnapshot.QuestEntry entry : snapshot.getQuests()) {
+                        insertQuest.setString(1, entry.getId().toString());
+                        insertQuest.setString(2, uuid);
+                        insertQuest.setString(3, entry.getTypeId());
+                        insertQuest.setString(4, entry.getName());
+                        insertQuest.setString(5, entry.getDescription());
+                        insertQuest.setString(6, entry.getQuestType().name());
+                        insertQuest.setString(7, QuestDataCodec.encode(entry.getData()));
+                        insertQuest.setInt(8, entry.getXpReward());
+                        insertQuest.setInt(9, entry.getProgress());
+                        insertQuest.setLong(10, entry.getStartTime());
+                        insertQuest.addBatch();
+                    }
+
+                    for (String tier : snapshot.getUnlockedRewards()) {
+                        insertReward.setString(1, uuid);
+                        insertReward.setString(2, tier);
+                        insertReward.setLong(3, now);
+                        insertReward.addBatch();
+                    }
+                }
+
+                // Deletes must run before the inserts that replace them
+                upsertPlayer.executeBatch();
+                deleteQuests.executeBatch();
+                insertQuest.executeBatch();
+                insertReward.executeBatch();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            throw new StorageException("Could not save " + snapshots.size() + " players", e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public void saveXP(UUID playerId, int xp) throws StorageException {
+        Connection connection = borrow();
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_XP)) {
+            statement.setString(1, playerId.toString());
+            statement.setInt(2, xp);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new StorageException("Could not save XP of " + playerId, e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public void scanXP(ObjIntConsumer<UUID> consumer) throws StorageException {
+        Connection connection = borrow();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ALL_XP);
+             ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                try {
+                    consumer.accept(UUID.fromString(result.getString(1)), result.getInt(2));
+                } catch (IllegalArgumentException e) {
+                    logger.warning("Invalid player UUID in database: " + result.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not read player XP", e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    /**
+     * Inserts reward unlocks for many players in one transaction, used by the migrator
+     * @param unlocks Player -> (tier -> unlock date)
+     */
+    public void importRewardUnlocks(Map<UUID, Map<String, Long>> unlocks) throws StorageException {
+        if (unlocks.isEmpty()) return;
+
+        Connection connection = borrow();
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_REWARD)) {
+                for (Map.Entry<UUID, Map<String, Long>> player : unlocks.entrySet()) {
+                    for (Map.Entry<String, Long> tier : player.getValue().entrySet()) {
+                        statement.setString(1, player.getKey().toString());
+                        statement.setString(2, tier.getKey());
+                        statement.setLong(3, tier.getValue());
+                        statement.addBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new StorageException("Could not import reward unlocks", e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private Connection borrow() throws StorageException {
+        try {
+            return pool.borrow();
+        } catch (SQLException e) {
+            throw new StorageException("No database connection available", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package me.zpleum.zmystic.quest.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * One-shot import of the playerdata/ directory (binary or legacy YAML files) into the database store.
+ * The directory is renamed afterwards so the import never runs twice.
+ */
+public class PlayerDataMigrator {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final BinaryPlayerDataStore source;
+    private final JdbcPlayerDataStore target;
+    private final Logger logger;
+
+    public PlayerDataMigrator(BinaryPlayerDataStore source, JdbcPlayerDataStore target, Logger logger) {
+        this.source = source;
+        this.target = target;
+        this.logger = logger;
+    }
+
+    public boolean isNeeded() {
+        return !source.listPlayers().isEmpty();
+    }
+
+    /**
+     * Copies every player file into the target store
+     * @return The number of players migrated
+     */
+    public int migrate() throws StorageException {
+        List<UUID> players = source.listPlayers();
+        logger.info("Migrating " + players.size() + " player data files to the database...");
+
+        List<PlayerSnapshot> batch = new ArrayList<>(BATCH_SIZE);
+        Map<UUID, Map<String, Long>> rewards = new HashMap<>();
+        int migrated = 0;
+
+        for (UUID playerId : players) {
+            PlayerSnapshot snapshot = source.load(playerId);
+            if (snapshot == null) continue;
+
+            batch.add(snapshot);
+            Map<String, Long> unlocks = source.loadRewardUnlocks(playerId);
+            if (!unlocks.isEmpty()) {
+                rewards.put(playerId, unlocks);
+            }
+
+            if (batch.size() >= BATCH_SIZE) {
+                migrated += writeBatch(batch, rewards);
+            }
+        }
+        migrated += writeBatch(batch, rewards);
+
+        // Keep the old files as a backup but out of the way of future imports
+        File directory = source.getDirectory();
+        File backup = new File(directory.getParentFile(), directory.getName() + "-migrated");
+        if (!directory.renameTo(backup)) {
+            logger.warning("Could not rename " + directory.getName() + ", the migration will run again on next start");
+        }
+
+        logger.info("Migrated " + migrated + " players to the database.");
+        return migrated;
+    }
+
+    private int writeBatch(List<PlayerSnapshot> batch, Map<UUID, Map<String, Long>> rewards) throws StorageException {
+        int size = batch.size();
+        target.save(batch);
+        target.importRewardUnlocks(rewards);
+        batch.clear();
+        rewards.clear();
+        return size;
+    }
+}
@@ -0,0 +1,36 @@
+package me.zpleum.zmystic.quest.storage;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Backend that persists player quests, XP and reward unlocks.
+ * Implementations are selected with xp.storage-type in config.yml.
+ */
+public interface PlayerDataStore {
+
+    /**
+     * Loads a player's data
+     * @param playerId The player's UUID
+     * @return The stored data, or null if nothing is stored for this player
+     */
+    PlayerSnapshot load(UUID playerId) throws StorageException;
+
+    /**
+     * Saves a batch of snapshots, replacing whatever was stored for those players
+     */
+    void save(List<PlayerSnapshot> snapshots) throws StorageException;
+
+    /**
+     * Updates only the XP of a player whose data is not resident
+     */
+    void saveXP(UUID playerId, int xp) throws StorageException;
+
+    /**
+     * Visits the stored XP of every player, used to build the leaderboard when it has no saved state
+     */
+    void scanXP(ObjIntConsumer<UUID> consumer) throws StorageException;
+
+    void close();
+}
@@ -0,0 +1,211 @@
+package me.zpleum.zmystic.quest.storage;
+
+import me.zpleum.zmystic.quest.MysticQuest;
+import me.zpleum.zmystic.quest.config.ConfigManager;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind layer for player data. Mutations only mark a player dirty; a periodic
+ * task on the main thread snapshots the dirty players and a single background thread
+ * writes those snapshots to the data store.
+ */
+public class PlayerDataWriter {
+
+    private final MysticQuest plugin;
+    private final PlayerDataStore store;
+    private final Function<UUID, PlayerSnapshot> snapshotter;
+    private final Set<UUID> dirtyPlayers;
+    private final ExecutorService ioExecutor;
+    private BukkitTask flushTask;
+
+    // Metrics
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    // Config values
+    private int flushInterval;
+    private int shutdownTimeout;
+
+    public PlayerDataWriter(MysticQuest plugin, PlayerDataStore store, Function<UUID, PlayerSnapshot> snapshotter) {
+        this.plugin = plugin;
+        this.store = store;
+        this.snapshotter = snapshotter;
+        this.dirtyPlayers = ConcurrentHashMap.newKeySet();
+        this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MysticQuest-IO");
+            thread.setDaemon(true);
+            return thread;
+        });
+        loadConfig();
+    }
+
+    private void loadConfig() {
+        FileConfiguration config = plugin.getConfigManager().getConfig(ConfigManager.MAIN_CONFIG);
+        flushInterval = Math.max(1, config.getInt("storage.flush-interval", 5));
+        shutdownTimeout = Math.max(1, config.getInt("storage.shutdown-timeout", 10));
+    }
+
+    public void start() {
+        stopTask();
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushDirty, flushInterval * 20L, flushInterval * 20L);
+    }
+
+    private void stopTask() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+
+    public void markDirty(UUID playerId) {
+        dirtyPlayers.add(playerId);
+    }
+
+    /**
+     * Snapshots every dirty player and queues the snapshots for writing.
+     * Must be called on the main thread.
+     */
+    public CompletableFuture<Void> flushDirty() {
+        if (dirtyPlayers.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<PlayerSnapshot> batch = new ArrayList<>();
+        Iterator<UUID> iterator = dirtyPlayers.iterator();
+        while (iterator.hasNext()) {
+            UUID playerId = iterator.next();
+            iterator.remove();
+            addSnapshot(batch, playerId);
+        }
+        return queueWrites(batch);
+    }
+
+    /**
+     * Snapshots a single player immediately, regardless of the flush interval.
+     * Must be called on the main thread.
+     */
+    public CompletableFuture<Void> flushPlayer(UUID playerId) {
+        if (!dirtyPlayers.remove(playerId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<PlayerSnapshot> batch = new ArrayList<>(1);
+        addSnapshot(batch, playerId);
+        return queueWrites(batch);
+    }
+
+    /**
+     * Runs a task on the I/O thread. Tasks run in submission order, after any writes queued before them.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, ioExecutor);
+    }
+
+    private void addSnapshot(List<PlayerSnapshot> batch, UUID playerId) {
+        // Players whose data is no longer resident have nothing to write
+        PlayerSnapshot snapshot = snapshotter.apply(playerId);
+        if (snapshot != null) {
+            batch.add(snapshot);
+        }
+    }
+
+    private CompletableFuture<Void> queueWrites(List<PlayerSnapshot> batch) {
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        pendingWrites.addAndGet(batch.size());
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                store.save(batch);
+            } catch (StorageException e) {
+                plugin.getLogger().severe("Could not save player data: " + e.getMessage());
+
+                // Retry with a fresh snapshot on the next flush
+                for (PlayerSnapshot snapshot : batch) {
+                    dirtyPlayers.add(snapshot.getPlayerId());
+                }
+            } finally {
+                pendingWrites.addAndGet(-batch.size());
+            }
+            recordFlush(System.nanoTime() - start);
+        }, ioExecutor);
+    }
+
+    private void recordFlush(long nanos) {
+        flushCount.incrementAndGet();
+        totalFlushNanos.addAndGet(nanos);
+        lastFlushNanos.set(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Flushes everything that is still dirty and waits for the I/O thread to drain,
+     * giving up after the configured shutdown timeout.
+     */
+    public void shutdown() {
+        stopTask();
+        flushDirty();
+        ioExecutor.shutdown();
+
+        try {
+            if (!ioExecutor.awaitTermination(shutdownTimeout, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Timed out saving player data, " + pendingWrites.get() + " writes were not completed!");
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isDirty(UUID playerId) {
+        return dirtyPlayers.contains(playerId);
+    }
+
+    public int getDirtyCount() {
+        return dirtyPlayers.size();
+    }
+
+    public int getPendingWrites() {
+        return pendingWrites.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public double getLastFlushMillis() {
+        return lastFlushNanos.get() / 1_000_000.0;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount.get();
+        return count == 0 ? 0 : totalFlushNanos.get() / (double) count / 1_000_000.0;
+    }
+}
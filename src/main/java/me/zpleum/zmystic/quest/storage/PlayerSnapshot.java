@@ -0,0 +1,180 @@
+package me.zpleum.zmystic.quest.storage;
+
+import me.zpleum.zmystic.quest.models.Quest;
+import me.zpleum.zmystic.quest.models.QuestTemplate;
+import me.zpleum.zmystic.quest.models.QuestType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a player's quest state. Snapshots are taken on the main thread
+ * and handed to the I/O thread, so nothing in here may reference live objects.
+ */
+public final class PlayerSnapshot {
+
+    private final UUID playerId;
+    private final List<QuestEntry> quests;
+    private final int xp;
+    private final Set<String> unlockedRewards;
+    private final long journalSeq;
+
+    public PlayerSnapshot(UUID playerId, Collection<Quest> quests, int xp, Set<String> unlockedRewards, long journalSeq) {
+        this.playerId = playerId;
+        List<QuestEntry> entries = new ArrayList<>(quests.size());
+        for (Quest quest : quests) {
+            entries.add(new QuestEntry(quest));
+        }
+        this.quests = Collections.unmodifiableList(entries);
+        this.xp = xp;
+        this.unlockedRewards = Collections.unmodifiableSet(new LinkedHashSet<>(unlockedRewards));
+        this.journalSeq = journalSeq;
+    }
+
+    public PlayerSnapshot(UUID playerId, List<QuestEntry> quests, int xp, Set<String> unlockedRewards, long journalSeq) {
+        this.playerId = playerId;
+        this.quests = Collections.unmodifiableList(new ArrayList<>(quests));
+        this.xp = xp;
+        this.unlockedRewards = Collections.unmodifiableSet(new LinkedHashSet<>(unlockedRewards));
+        this.journalSeq = journalSeq;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public List<QuestEntry> getQuests() {
+        return quests;
+    }
+
+    public int getXp() {
+        return xp;
+    }
+
+    /**
+     * Names of the reward tiers this player has already received
+     */
+    public Set<String> getUnlockedRewards() {
+        return unlockedRewards;
+    }
+
+    /**
+     * Sequence number of the last progress journal record already reflected in this snapshot
+     */
+    public long getJournalSeq() {
+        return journalSeq;
+    }
+
+    public static final class QuestEntry {
+
+        private final UUID id;
+        private final String typeId;
+        private final String name;
+        private final String description;
+        private final QuestType questType;
+        private final Map<String, Object> data;
+        private final int xpReward;
+        private final int progress;
+        private final long startTime;
+
+        private QuestEntry(Quest quest) {
+            this(quest.getId(), quest.getTypeId(), quest.getName(), quest.getDescription(), quest.getType(),
+                    quest.getData(), quest.getXpReward(), quest.getProgress(), quest.getStartTime());
+        }
+
+        public QuestEntry(UUID id, String typeId, String name, String description, QuestType questType,
+                          Map<String, Object> data, int xpReward, int progress, long startTime) {
+            this.id = id;
+            this.typeId = typeId;
+            this.name = name;
+            this.description = description;
+            this.questType = questType;
+            this.data = Collections.unmodifiableMap(new HashMap<>(data));
+            this.xpReward = xpReward;
+            this.progress = progress;
+            this.startTime = startTime;
+        }
+
+        /**
+         * Converts this entry into the map layout used by the player data files
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> questMap = new HashMap<>();
+            questMap.put("id", id.toString());
+            questMap.put("type_id", typeId);
+            questMap.put("name", name);
+            questMap.put("description", description);
+            questMap.put("quest_type", questType.name());
+            questMap.put("quest_data", new HashMap<>(data));
+            questMap.put("xp_reward", xpReward);
+            questMap.put("progress", progress);
+            questMap.put("start_time", startTime);
+            return questMap;
+        }
+
+        public QuestEntry withProgress(int progress) {
+            return new QuestEntry(id, typeId, name, description, questType, data, xpReward, progress, startTime);
+        }
+
+        /**
+         * Creates a live quest from this entry
+         * @param template Definition to share, must describe the same quest as this entry
+         */
+        public Quest toQuest(UUID playerId, QuestTemplate template) {
+            Quest quest = new Quest(id, template, playerId);
+            quest.setProgress(progress);
+            quest.setStartTime(startTime);
+            return quest;
+        }
+
+        /**
+         * Builds a template from the definition stored in this entry
+         */
+        public QuestTemplate toTemplate() {
+            return QuestTemplate.of(typeId, name, description, questType, data, xpReward);
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getTypeId() {
+            return typeId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public QuestType getQuestType() {
+            return questType;
+        }
+
+        public Map<String, Object> getData() {
+            return data;
+        }
+
+        public int getXpReward() {
+            return xpReward;
+        }
+
+        public int getProgress() {
+            return progress;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+    }
+}
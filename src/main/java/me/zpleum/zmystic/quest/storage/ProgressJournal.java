@@ -0,0 +1,435 @@
+package me.zpleum.zmystic.quest.storage;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Append-only binary log of quest progress changes. Appends only copy a fixed-size record
+ * into a memory buffer; a background thread writes and fsyncs the buffer once per group-commit
+ * window. Records are folded into the player snapshots by {@link #compact(PlayerDataStore)}.
+ * <p>
+ * Every record carries a sequence number and every snapshot stores the last sequence it
+ * already reflects, so replaying the journal never moves progress backwards.
+ */
+public class ProgressJournal {
+
+    private static final int MAGIC = 0x4D514A31; // "MQJ1"
+    private static final int HEADER_SIZE = 12; // magic + base sequence
+    private static final int RECORD_SIZE = 44; // player uuid + quest uuid + sequence + progress
+    private static final int COMPACT_BATCH_SIZE = 500;
+
+    private final File file;
+    private final File rotatedFile;
+    private final Logger logger;
+
+    // Guards the sequence counter and the active buffer
+    private final Object bufferLock = new Object();
+    // Guards the file channel; held while writing so rotation never interleaves with a commit
+    private final Object channelLock = new Object();
+
+    private ByteBuffer activeBuffer = ByteBuffer.allocate(RECORD_SIZE * 256);
+    private ByteBuffer standbyBuffer = ByteBuffer.allocate(RECORD_SIZE * 256);
+    private long lastSeq;
+    private FileChannel channel;
+    private ScheduledExecutorService committer;
+
+    // Latest record per player and quest that is not yet part of a stored snapshot
+    private final Map<UUID, Map<UUID, Entry>> tail = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final AtomicLong appendedRecords = new AtomicLong();
+    private final AtomicLong commitCount = new AtomicLong();
+    private final AtomicLong lastCommitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private final AtomicLong compactionCount = new AtomicLong();
+
+    public ProgressJournal(File directory, Logger logger) {
+        this.file = new File(directory, "progress.journal");
+        this.rotatedFile = new File(directory, "progress.journal.old");
+        this.logger = logger;
+    }
+
+    /**
+     * Replays any journal left from the previous run and starts the group-commit thread
+     * @param groupCommitMillis How long appends may sit in memory before they are fsynced
+     */
+    public void open(long groupCommitMillis) throws IOException {
+        long validLength = -1;
+
+        // A rotated journal means the last compaction did not finish, it is replayed first
+        if (rotatedFile.exists()) {
+            readRecords(rotatedFile, this::putTail);
+        }
+        if (file.exists()) {
+            validLength = readRecords(file, this::putTail);
+        } else if (!rotatedFile.exists()) {
+            // Without a journal to continue from, start numbering above anything a snapshot may hold
+            raiseSeq(System.currentTimeMillis() * 1000);
+        }
+
+        synchronized (channelLock) {
+            if (validLength >= HEADER_SIZE) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+                // Drop a record that was only partly written when the server stopped
+                channel.truncate(validLength);
+                channel.position(validLength);
+            } else {
+                openNewFile();
+            }
+        }
+
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MysticQuest-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commitQuietly, groupCommitMillis, groupCommitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a progress change. Must be called on the main thread.
+     * @return The sequence number of the new record
+     */
+    public long append(UUID playerId, UUID questId, int progress) {
+        long seq;
+        synchronized (bufferLock) {
+            seq = ++lastSeq;
+            if (activeBuffer.remaining() < RECORD_SIZE) {
+                ByteBuffer grown = ByteBuffer.allocate(activeBuffer.capacity() * 2);
+                activeBuffer.flip();
+                grown.put(activeBuffer);
+                activeBuffer = grown;
+            }
+            activeBuffer.putLong(playerId.getMostSignificantBits());
+            activeBuffer.putLong(playerId.getLeastSignificantBits());
+            activeBuffer.putLong(questId.getMostSignificantBits());
+            activeBuffer.putLong(questId.getLeastSignificantBits());
+            activeBuffer.putLong(seq);
+            activeBuffer.putInt(progress);
+        }
+
+        putTail(playerId, questId, new Entry(seq, progress));
+        appendedRecords.incrementAndGet();
+        return seq;
+    }
+
+    /**
+     * The sequence number of the newest record. A snapshot taken on the main thread
+     * reflects every record up to this number.
+     */
+    public long getLastSeq() {
+        synchronized (bufferLock) {
+            return lastSeq;
+        }
+    }
+
+    /**
+     * Applies journal records that are newer than a stored snapshot, used when a player is loaded
+     */
+    public PlayerSnapshot applyTail(PlayerSnapshot snapshot) {
+        Map<UUID, Entry> entries = copyTail(snapshot.getPlayerId());
+        return entries.isEmpty() ? snapshot : apply(snapshot, entries);
+    }
+
+    /**
+     * Rotates the journal and folds the rotated records into the stored snapshots.
+     * Runs on the I/O thread so it is ordered with the regular snapshot writes.
+     * @return The number of player snapshots rewritten
+     */
+    public int compact(PlayerDataStore store) throws IOException, StorageException {
+        rotate();
+        if (!rotatedFile.exists()) return 0;
+
+        Map<UUID, Map<UUID, Entry>> records = new HashMap<>();
+        readRecords(rotatedFile, (playerId, questId, entry) ->
+                merge(records.computeIfAbsent(playerId, k -> new HashMap<>()), questId, entry));
+
+        List<PlayerSnapshot> batch = new ArrayList<>(Math.min(records.size(), COMPACT_BATCH_SIZE));
+        int rewritten = 0;
+
+        for (Map.Entry<UUID, Map<UUID, Entry>> playerRecords : records.entrySet()) {
+            PlayerSnapshot snapshot = store.load(playerRecords.getKey());
+            if (snapshot == null) continue;
+
+            PlayerSnapshot updated = apply(snapshot, playerRecords.getValue());
+            if (updated.getJournalSeq() == snapshot.getJournalSeq()) continue;
+
+            batch.add(updated);
+            if (batch.size() >= COMPACT_BATCH_SIZE) {
+                rewritten += batch.size();
+                store.save(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            rewritten += batch.size();
+            store.save(batch);
+        }
+
+        if (!rotatedFile.delete()) {
+            logger.warning("Could not delete " + rotatedFile.getName() + ", it will be compacted again");
+        }
+
+        // Those records now live in the snapshots, forget them unless a newer one arrived since
+        for (Map.Entry<UUID, Map<UUID, Entry>> playerRecords : records.entrySet()) {
+            pruneTail(playerRecords.getKey(), playerRecords.getValue());
+        }
+
+        compactionCount.incrementAndGet();
+        return rewritten;
+    }
+
+    /**
+     * Writes whatever is still buffered and stops the group-commit thread
+     */
+    public void close() {
+        if (committer != null) {
+            committer.shutdown();
+            try {
+                committer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (channelLock) {
+            if (channel == null) return;
+            try {
+                commit();
+                channel.close();
+            } catch (IOException e) {
+                logger.severe("Could not close the progress journal: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (IOException e) {
+            logger.severe("Could not write the progress journal: " + e.getMessage());
+        }
+    }
+
+    private void commit() throws IOException {
+        synchronized (channelLock) {
+            if (channel == null) return;
+
+            ByteBuffer pending;
+            synchronized (bufferLock) {
+                if (activeBuffer.position() == 0) return;
+                // Swap buffers so appends are not blocked while we wait on the disk
+                pending = activeBuffer;
+                activeBuffer = standbyBuffer;
+                standbyBuffer = pending;
+            }
+
+            long start = System.nanoTime();
+            pending.flip();
+            try {
+                while (pending.hasRemaining()) {
+                    channel.write(pending);
+                }
+                channel.force(false);
+            } finally {
+                pending.clear();
+            }
+
+            long nanos = System.nanoTime() - start;
+            commitCount.incrementAndGet();
+            lastCommitNanos.set(nanos);
+            maxCommitNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    private void rotate() throws IOException {
+        synchronized (channelLock) {
+            commit();
+
+            // A previous compaction failed, finish that one before rotating again
+            if (rotatedFile.exists() || channel == null) return;
+            if (channel.size() <= HEADER_SIZE) return;
+
+            channel.close();
+            if (!file.renameTo(rotatedFile)) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                throw new IOException("Could not rotate " + file.getName());
+            }
+            openNewFile();
+        }
+    }
+
+    // Caller holds channelLock
+    private void openNewFile() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putLong(getLastSeq());
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Reads every complete record of a journal file
+     * @return The length of the file up to the last complete record, or -1 if the header is invalid
+     */
+    private long readRecords(File journalFile, RecordConsumer consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            long baseSeq;
+            try {
+                if (in.readInt() != MAGIC) {
+                    logger.warning(journalFile.getName() + " is not a progress journal, ignoring it");
+                    return -1;
+                }
+                baseSeq = in.readLong();
+            } catch (EOFException e) {
+                return -1;
+            }
+            raiseSeq(baseSeq);
+
+            long length = HEADER_SIZE;
+            while (true) {
+                UUID playerId;
+                UUID questId;
+                Entry entry;
+                try {
+                    playerId = new UUID(in.readLong(), in.readLong());
+                    questId = new UUID(in.readLong(), in.readLong());
+                    long seq = in.readLong();
+                    entry = new Entry(seq, in.readInt());
+                } catch (EOFException e) {
+                    return length;
+                }
+
+                raiseSeq(entry.seq);
+                consumer.accept(playerId, questId, entry);
+                length += RECORD_SIZE;
+            }
+        }
+    }
+
+    private void raiseSeq(long seq) {
+        synchronized (bufferLock) {
+            lastSeq = Math.max(lastSeq, seq);
+        }
+    }
+
+    private void putTail(UUID playerId, UUID questId, Entry entry) {
+        tail.compute(playerId, (key, entries) -> {
+            if (entries == null) entries = new HashMap<>();
+            merge(entries, questId, entry);
+            return entries;
+        });
+    }
+
+    private Map<UUID, Entry> copyTail(UUID playerId) {
+        Map<UUID, Entry> copy = new HashMap<>();
+        tail.computeIfPresent(playerId, (key, entries) -> {
+            copy.putAll(entries);
+            return entries;
+        });
+        return copy;
+    }
+
+    private void pruneTail(UUID playerId, Map<UUID, Entry> compacted) {
+        tail.computeIfPresent(playerId, (key, entries) -> {
+            for (Map.Entry<UUID, Entry> record : compacted.entrySet()) {
+                entries.computeIfPresent(record.getKey(), (questId, entry) ->
+                        entry.seq <= record.getValue().seq ? null : entry);
+            }
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private static void merge(Map<UUID, Entry> entries, UUID questId, Entry entry) {
+        Entry existing = entries.get(questId);
+        if (existing == null || existing.seq < entry.seq) {
+            entries.put(questId, entry);
+        }
+    }
+
+    private static PlayerSnapshot apply(PlayerSnapshot snapshot, Map<UUID, Entry> entries) {
+        long snapshotSeq = snapshot.getJournalSeq();
+        long newestSeq = snapshotSeq;
+        List<PlayerSnapshot.QuestEntry> quests = new ArrayList<>(snapshot.getQuests().size());
+
+        for (PlayerSnapshot.QuestEntry quest : snapshot.getQuests()) {
+            Entry entry = entries.get(quest.getId());
+            if (entry != null && entry.seq > snapshotSeq) {
+                quest = quest.withProgress(entry.progress);
+            }
+            quests.add(quest);
+        }
+
+        // Records for quests that were completed since are simply covered by the new sequence
+        for (Entry entry : entries.values()) {
+            newestSeq = Math.max(newestSeq, entry.seq);
+        }
+
+        if (newestSeq == snapshotSeq) return snapshot;
+        return new PlayerSnapshot(snapshot.getPlayerId(), quests, snapshot.getXp(), snapshot.getUnlockedRewards(), newestSeq);
+    }
+
+    public long getAppendedRecords() {
+        return appendedRecords.get();
+    }
+
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    public long getCompactionCount() {
+        return compactionCount.get();
+    }
+
+    public int getTailSize() {
+        return tail.size();
+    }
+
+    public double getLastCommitMillis() {
+        return lastCommitNanos.get() / 1_000_000.0;
+    }
+
+    public double getMaxCommitMillis() {
+        return maxCommitNanos.get() / 1_000_000.0;
+    }
+
+    private interface RecordConsumer {
+        void accept(UUID playerId, UUID questId, Entry entry);
+    }
+
+    private static final class Entry {
+
+        private final long seq;
+        private final int progress;
+
+        private Entry(long seq, int progress) {
+            this.seq = seq;
+            this.progress = progress;
+        }
+    }
+}
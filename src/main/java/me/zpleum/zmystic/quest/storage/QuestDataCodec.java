@@ -0,0 +1,31 @@
+package me.zpleum.zmystic.quest.storage;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.Map;
+
+/**
+ * Converts the free-form quest_data map to and from a YAML string for stores that keep it as text
+ */
+final class QuestDataCodec {
+
+    private QuestDataCodec() {
+    }
+
+    static String encode(Map<String, Object> data) {
+        YamlConfiguration yaml = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            yaml.set(entry.getKey(), entry.getValue());
+        }
+        return yaml.saveToString();
+    }
+
+    static Map<String, Object> decode(String text) throws InvalidConfigurationException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        if (text != null) {
+            yaml.loadFromString(text);
+        }
+        return yaml.getValues(false);
+    }
+}
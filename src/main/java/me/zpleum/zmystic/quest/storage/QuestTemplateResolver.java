@@ -0,0 +1,16 @@
+package me.zpleum.zmystic.quest.storage;
+
+import java.util.UUID;
+
+/**
+ * Rebuilds a quest from its definition in quests.yml, so stores only need to keep
+ * the per-player parts of a quest
+ */
+@FunctionalInterface
+public interface QuestTemplateResolver {
+
+    /**
+     * @return The quest as currently defined by its template, or null if the template no longer exists
+     */
+    PlayerSnapshot.QuestEntry resolve(UUID questId, String typeId, int progress, long startTime);
+}
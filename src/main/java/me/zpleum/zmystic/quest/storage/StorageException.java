@@ -0,0 +1,15 @@
+package me.zpleum.zmystic.quest.storage;
+
+/**
+ * Thrown when a player data store cannot read or write its backing storage
+ */
+public class StorageException extends Exception {
+
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
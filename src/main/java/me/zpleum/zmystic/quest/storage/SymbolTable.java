@@ -0,0 +1,62 @@
+package me.zpleum.zmystic.quest.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only mapping between strings and small ints. Ids are never reused or
+ * reassigned, so they can be written into player files in place of the strings.
+ */
+class SymbolTable {
+
+    private final List<String> symbols = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * @return The id of the symbol, or -1 if it has not been interned
+     */
+    int find(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Returns the id of the symbol, assigning the next free id if it is new
+     */
+    int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) return id;
+
+        int newId = symbols.size();
+        symbols.add(symbol);
+        ids.put(symbol, newId);
+        return newId;
+    }
+
+    String lookup(int id) {
+        return id >= 0 && id < symbols.size() ? symbols.get(id) : null;
+    }
+
+    int size() {
+        return symbols.size();
+    }
+
+    void read(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            intern(in.readUTF());
+        }
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(symbols.size());
+        for (String symbol : symbols) {
+            out.writeUTF(symbol);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package me.zpleum.zmystic.quest.storage;
+
+import me.zpleum.zmystic.quest.models.QuestType;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Stores each player in playerdata/&lt;uuid&gt;.yml
+ */
+public class YamlPlayerDataStore implements PlayerDataStore {
+
+    private final File directory;
+    private final Logger logger;
+
+    public YamlPlayerDataStore(File directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    @Override
+    public synchronized PlayerSnapshot load(UUID playerId) {
+        File playerFile = getPlayerFile(playerId);
+        if (!playerFile.exists()) return null;
+
+        YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(playerFile);
+
+        // Load quests
+        List<?> questsList = playerConfig.getList("quests");
+        List<PlayerSnapshot.QuestEntry> quests = new ArrayList<>();
+
+        if (questsList != null) {
+            for (Object obj : questsList) {
+                if (obj instanceof Map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> questMap = (Map<String, Object>) obj;
+
+                    try {
+                        UUID questId = UUID.fromString((String) questMap.get("id"));
+                        String typeId = (String) questMap.get("type_id");
+                        String name = (String) questMap.get("name");
+                        String description = (String) questMap.get("description");
+                        QuestType questType = QuestType.valueOf((String) questMap.get("quest_type"));
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> questData = (Map<String, Object>) questMap.get("quest_data");
+                        int xpReward = ((Number) questMap.get("xp_reward")).intValue();
+                        int progress = questMap.containsKey("progress") ? ((Number) questMap.get("progress")).intValue() : 0;
+                        long startTime = questMap.containsKey("start_time") ? ((Number) questMap.get("start_time")).longValue() : System.currentTimeMillis();
+
+                        quests.add(new PlayerSnapshot.QuestEntry(questId, typeId, name, description, questType,
+                                questData != null ? questData : new HashMap<>(), xpReward, progress, startTime));
+                    } catch (Exception e) {
+                        logger.warning("Failed to load quest: " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        return new PlayerSnapshot(playerId, quests, playerConfig.getInt("mystic_xp", 0),
+                loadRewardUnlocks(playerConfig).keySet(), playerConfig.getLong("journal_seq", 0L));
+    }
+
+    @Override
+    public synchronized void save(List<PlayerSnapshot> snapshots) throws StorageException {
+        ensureDirectory();
+
+        for (PlayerSnapshot snapshot : snapshots) {
+            File playerFile = getPlayerFile(snapshot.getPlayerId());
+
+            // Reload the file so the unlock dates of earlier rewards are kept
+            YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(playerFile);
+
+            List<Map<String, Object>> questsList = new ArrayList<>();
+            for (PlayerSnapshot.QuestEntry entry : snapshot.getQuests()) {
+                questsList.add(entry.toMap());
+            }
+
+            playerConfig.set("quests", questsList);
+            playerConfig.set("mystic_xp", snapshot.getXp());
+            playerConfig.set("journal_seq", snapshot.getJournalSeq());
+
+            long now = System.currentTimeMillis();
+            for (String tier : snapshot.getUnlockedRewards()) {
+                if (!playerConfig.getBoolean("rewards." + tier + ".unlocked", false)) {
+                    playerConfig.set("rewards." + tier + ".unlocked", true);
+                    playerConfig.set("rewards." + tier + ".unlocked-date", now);
+                }
+            }
+
+            save(playerConfig, playerFile);
+        }
+    }
+
+    @Override
+    public synchronized void saveXP(UUID playerId, int xp) throws StorageException {
+        File playerFile = getPlayerFile(playerId);
+        if (!playerFile.exists() && xp == 0) return;
+        ensureDirectory();
+
+        YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(playerFile);
+        playerConfig.set("mystic_xp", xp);
+        save(playerConfig, playerFile);
+    }
+
+    @Override
+    public synchronized void scanXP(ObjIntConsumer<UUID> consumer) {
+        for (UUID playerId : listPlayers()) {
+            YamlConfiguration playerConfig = YamlConfiguration.loadConfiguration(getPlayerFile(playerId));
+            consumer.accept(playerId, playerConfig.getInt("mystic_xp", 0));
+        }
+    }
+
+    /**
+     * Reads the unlocked reward tiers of a player, used when migrating to another store
+     * @return Tier name -> unlock date
+     */
+    public synchronized Map<String, Long> loadRewardUnlocks(UUID playerId) {
+        File playerFile = getPlayerFile(playerId);
+        if (!playerFile.exists()) return new LinkedHashMap<>();
+
+        return loadRewardUnlocks(YamlConfiguration.loadConfiguration(playerFile));
+    }
+
+    private static Map<String, Long> loadRewardUnlocks(YamlConfiguration playerConfig) {
+        Map<String, Long> unlocks = new LinkedHashMap<>();
+        ConfigurationSection rewards = playerConfig.getConfigurationSection("rewards");
+        if (rewards == null) return unlocks;
+
+        for (String tier : rewards.getKeys(false)) {
+            if (rewards.getBoolean(tier + ".unlocked", false)) {
+                unlocks.put(tier, rewards.getLong(tier + ".unlocked-date", 0L));
+            }
+        }
+        return unlocks;
+    }
+
+    /**
+     * Lists every player that has a data file
+     */
+    public List<UUID> listPlayers() {
+        List<UUID> players = new ArrayList<>();
+        File[] playerFiles = directory.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (playerFiles == null) return players;
+
+        for (File file : playerFiles) {
+            String fileName = file.getName();
+            try {
+                players.add(UUID.fromString(fileName.substring(0, fileName.length() - 4)));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid player data file name: " + fileName);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Removes a player's file, used once it has been converted to another format
+     */
+    public synchronized void delete(UUID playerId) {
+        File playerFile = getPlayerFile(playerId);
+        if (playerFile.exists() && !playerFile.delete()) {
+            logger.warning("Could not delete " + playerFile.getName());
+        }
+    }
+
+    @Override
+    public void close() {
+        // Nothing is held open between calls
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private File getPlayerFile(UUID playerId) {
+        return new File(directory, playerId.toString() + ".yml");
+    }
+
+    private void ensureDirectory() {
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+    }
+
+    private void save(YamlConfiguration playerConfig, File playerFile) throws StorageException {
+        try {
+            playerConfig.save(playerFile);
+        } catch (IOException e) {
+            throw new StorageException("Could not save " + playerFile.getName(), e);
+        }
+    }
+}
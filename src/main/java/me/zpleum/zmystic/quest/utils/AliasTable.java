@@ -0,0 +1,109 @@
+package me.zpleum.zmystic.quest.utils;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted random choice using Vose's alias method. Building the table is O(n),
+ * after that every pick costs one random column and one biased coin flip, whatever
+ * the number of entries, and allocates nothing. Entries without a positive weight
+ * are never picked. Immutable once built, so it can be shared between threads.
+ */
+public final class AliasTable<T> {
+
+    private final Object[] values;
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param values Entries to pick from
+     * @param weights Relative weight of each entry, in the same order
+     */
+    public AliasTable(List<T> values, double[] weights) {
+        if (values.size() != weights.length) {
+            throw new IllegalArgumentException("Expected " + values.size() + " weights, got " + weights.length);
+        }
+
+        int count = 0;
+        double total = 0;
+        for (double weight : weights) {
+            if (weight > 0) {
+                count++;
+                total += weight;
+            }
+        }
+
+        this.values = new Object[count];
+        this.probability = new double[count];
+        this.alias = new int[count];
+        if (count == 0) return;
+
+        // Scale the weights so the average column is exactly full
+        double[] scaled = new double[count];
+        int index = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                this.values[index] = values.get(i);
+                scaled[index] = weights[i] * count / total;
+                index++;
+            }
+        }
+
+        // Work lists of under- and overfull columns, used as stacks
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < count; i++) {
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+
+        // Top up every underfull column with the rest of an overfull one
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+
+        // Whatever is left is full, up to rounding errors
+        while (largeSize > 0) {
+            probability[large[--largeSize]] = 1.0;
+        }
+        while (smallSize > 0) {
+            probability[small[--smallSize]] = 1.0;
+        }
+    }
+
+    /**
+     * @return A random entry chosen by weight, or null if the table is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (values.length == 0) return null;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int column = random.nextInt(values.length);
+        return (T) values[random.nextDouble() < probability[column] ? column : alias[column]];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+}
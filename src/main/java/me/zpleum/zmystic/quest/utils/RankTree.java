@@ -0,0 +1,217 @@
+package me.zpleum.zmystic.quest.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Order-statistic treap of players ordered by score, highest first.
+ * Updates, rank lookups and lookups by position are all O(log n).
+ * Not thread-safe.
+ */
+public class RankTree {
+
+    private final Map<UUID, Integer> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    /**
+     * Sets a player's score, a score of zero or less removes the player
+     */
+    public void put(UUID playerId, int score) {
+        Integer current = scores.get(playerId);
+        if (current != null) {
+            if (current == score) return;
+            root = remove(root, current, playerId);
+            scores.remove(playerId);
+        }
+
+        if (score > 0) {
+            root = insert(root, new Node(playerId, score, random.nextInt()));
+            scores.put(playerId, score);
+        }
+    }
+
+    public void remove(UUID playerId) {
+        Integer current = scores.remove(playerId);
+        if (current != null) {
+            root = remove(root, current, playerId);
+        }
+    }
+
+    public boolean contains(UUID playerId) {
+        return scores.containsKey(playerId);
+    }
+
+    public int getScore(UUID playerId) {
+        return scores.getOrDefault(playerId, 0);
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * @return The 1-based rank of the player, or -1 if the player is not ranked
+     */
+    public int rank(UUID playerId) {
+        Integer score = scores.get(playerId);
+        if (score == null) return -1;
+
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(score, playerId, node);
+            if (cmp == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index 0-based position, 0 being the highest score
+     * @return The player at that position, or null if out of range
+     */
+    public UUID get(int index) {
+        if (index < 0 || index >= size()) return null;
+
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.playerId;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Visits every player from the highest score to the lowest
+     */
+    public void forEach(ObjIntConsumer<UUID> consumer) {
+        forEach(root, consumer);
+    }
+
+    private void forEach(Node node, ObjIntConsumer<UUID> consumer) {
+        while (node != null) {
+            forEach(node.left, consumer);
+            consumer.accept(node.playerId, node.score);
+            node = node.right;
+        }
+    }
+
+    private Node insert(Node node, Node item) {
+        if (node == null) return item;
+
+        if (item.priority > node.priority) {
+            Node[] parts = split(node, item.score, item.playerId);
+            item.left = parts[0];
+            item.right = parts[1];
+            update(item);
+            return item;
+        }
+
+        if (compare(item.score, item.playerId, node) < 0) {
+            node.left = insert(node.left, item);
+        } else {
+            node.right = insert(node.right, item);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, int score, UUID playerId) {
+        if (node == null) return null;
+
+        int cmp = compare(score, playerId, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, score, playerId);
+        } else {
+            node.right = remove(node.right, score, playerId);
+        }
+        update(node);
+        return node;
+    }
+
+    // Splits into nodes ordered before the key and nodes ordered after it
+    private Node[] split(Node node, int score, UUID playerId) {
+        if (node == null) return new Node[2];
+
+        if (compare(score, playerId, node) < 0) {
+            Node[] parts = split(node.left, score, playerId);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+            return parts;
+        }
+
+        Node[] parts = split(node.right, score, playerId);
+        node.right = parts[0];
+        update(node);
+        parts[0] = node;
+        return parts;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    // Higher scores first, ties broken by UUID so every player has a distinct position
+    private static int compare(int score, UUID playerId, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return playerId.compareTo(node.playerId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static final class Node {
+
+        private final UUID playerId;
+        private final int score;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(UUID playerId, int score, int priority) {
+            this.playerId = playerId;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package me.zpleum.zmystic.quest.utils;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of four levels with 64 slots each. Scheduling and cancelling
+ * are O(1), and advancing only visits the slot of the current tick plus the occasional
+ * cascade of a higher level, so the cost does not grow with the number of pending timeouts.
+ * Deadlines further away than the wheel spans are parked in the top level and re-placed as
+ * they come closer. Not thread-safe.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long resolution;
+    private final Timeout<T>[][] wheels;
+    private long currentTick;
+    private int size = 0;
+
+    /**
+     * @param resolution Length of one tick of the wheel in milliseconds
+     * @param nowMillis Current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long resolution, long nowMillis) {
+        this.resolution = resolution;
+        this.wheels = new Timeout[LEVELS][SLOTS];
+        this.currentTick = nowMillis / resolution;
+    }
+
+    /**
+     * Schedules a value to expire at the deadline, rounded up to the next tick.
+     * Deadlines in the past expire on the next advance.
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        long tick = (deadlineMillis + resolution - 1) / resolution;
+        Timeout<T> timeout = new Timeout<>(this, value, Math.max(tick, currentTick + 1));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel up to the given time, passing every expired value to the consumer
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / resolution;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Move timeouts of higher levels down when their slot comes up
+            for (int level = 1; level < LEVELS; level++) {
+                int shift = SLOT_BITS * level;
+                if ((currentTick & ((1L << shift) - 1)) != 0) break;
+                cascade(level, (int) ((currentTick >> shift) & SLOT_MASK));
+            }
+
+            int slot = (int) (currentTick & SLOT_MASK);
+            Timeout<T> head = wheels[0][slot];
+            wheels[0][slot] = null;
+
+            // Detach the whole slot first, the consumer may schedule or cancel timeouts
+            for (Timeout<T> timeout = head; timeout != null; timeout = timeout.next) {
+                timeout.wheel = null;
+                size--;
+            }
+
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                expired.accept(timeout.value);
+                timeout = next;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(int level, int slot) {
+        Timeout<T> timeout = wheels[level][slot];
+        wheels[level][slot] = null;
+
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.tick - currentTick;
+        long tick = timeout.tick;
+
+        int level;
+        if (delta <= 0) {
+            // Due now, picked up by the current slot
+            level = 0;
+            tick = currentTick;
+        } else if (delta < SLOTS) {
+            level = 0;
+        } else if (delta < 1L << (SLOT_BITS * 2)) {
+            level = 1;
+        } else if (delta < 1L << (SLOT_BITS * 3)) {
+            level = 2;
+        } else {
+            level = 3;
+            if (delta >= SPAN) {
+                tick = currentTick + SPAN - 1;
+            }
+        }
+
+        int slot = (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.wheel = this;
+        timeout.next = wheels[level][slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        wheels[level][slot] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            wheels[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.wheel = null;
+        size--;
+    }
+
+    public static final class Timeout<T> {
+
+        private final T value;
+        private final long tick;
+        private TimingWheel<T> wheel;
+        private int level;
+        private int slot;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(TimingWheel<T> wheel, T value, long tick) {
+            this.wheel = wheel;
+            this.value = value;
+            this.tick = tick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Removes the timeout from its wheel, does nothing if it already expired or was cancelled
+         */
+        public void cancel() {
+            if (wheel != null) {
+                wheel.unlink(this);
+            }
+        }
+    }
+}